@@ -0,0 +1,76 @@
+package liquibase.ext.hibernate.benchmark;
+
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.database.HibernateEjb3Database;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening a hibernate URL for each {@link SyntheticModel.Flavour}: the hibernate bootstrap done by {@code buildMetadata()} followed
+ * by the extraction of the relational model. {@link ModelExtractorBenchmark} measures the extraction on its own, so the difference is the bootstrap.
+ * {@code metadataOnly} compares the metadata-only bootstrap of the ejb3 and spring-package flavours with a bootstrap that builds
+ * the entity manager factory; the classic flavour ignores it.
+ * <p>
+ * The {@value #CLASSIC_POJO} flavour opens the hbm.xml configuration {@value #CLASSIC_POJO_URL} of the tests instead of the synthetic model,
+ * as a regression benchmark of the classic bootstrap on a hand-written mapping; the model parameters do not apply to it.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BuildMetadataBenchmark extends SyntheticModelBenchmark {
+
+    public static final String CLASSIC_POJO = "CLASSIC_POJO";
+    public static final String CLASSIC_POJO_URL = "hibernate:classic:com/example/pojo/Hibernate.cfg.xml";
+
+    @Param({"CLASSIC", "EJB3", "SPRING_PACKAGE", CLASSIC_POJO})
+    public String flavour;
+
+    @Param({"true", "false"})
+    public boolean metadataOnly;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (!CLASSIC_POJO.equals(flavour)) {
+            generateModel();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        closeModel();
+    }
+
+    @Benchmark
+    public HibernateRelationalModel open() throws Exception {
+        HibernateDatabase opened;
+        if (CLASSIC_POJO.equals(flavour)) {
+            opened = (HibernateDatabase) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(getClass().getClassLoader()),
+                    CLASSIC_POJO_URL + "?" + HibernateDatabase.RELEASE_METADATA_PROPERTY + "=true",
+                    null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        } else {
+            opened = model.open(model.getUrl(SyntheticModel.Flavour.valueOf(flavour), HibernateDatabase.RELEASE_METADATA_PROPERTY + "=true",
+                    HibernateEjb3Database.METADATA_ONLY_PROPERTY + "=" + metadataOnly));
+        }
+        try {
+            return opened.getRelationalModel();
+        } finally {
+            opened.close();
+        }
+    }
+}
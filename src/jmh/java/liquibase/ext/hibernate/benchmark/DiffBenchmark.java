@@ -0,0 +1,67 @@
+package liquibase.ext.hibernate.benchmark;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.DriverManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full diff of the hibernate database against an in-memory H2 database, either empty so that every object is missing,
+ * or created from the model so that the diff finds nothing. Both sides are snapshotted on each invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DiffBenchmark extends SyntheticModelBenchmark {
+
+    @Param({"empty", "populated"})
+    public String target;
+
+    private HibernateDatabase hibernateDatabase;
+    private Database h2Database;
+    private CompareControl compareControl;
+
+    @Setup
+    public void setUp() throws Exception {
+        generateModel();
+        hibernateDatabase = model.open(model.getUrl(SyntheticModel.Flavour.SPRING_PACKAGE, HibernateDatabase.RELEASE_METADATA_PROPERTY + "=true"));
+
+        h2Database = new H2Database();
+        h2Database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:diffbenchmark" + System.nanoTime(), "SA", "")));
+        if ("populated".equals(target)) {
+            model.createSchema(hibernateDatabase, h2Database);
+        }
+        compareControl = SyntheticModel.createCompareControl();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        h2Database.close();
+        hibernateDatabase.close();
+        closeModel();
+    }
+
+    @Benchmark
+    public DiffResult diff() throws Exception {
+        return model.run(() -> DiffGeneratorFactory.getInstance().compare(hibernateDatabase, h2Database, compareControl));
+    }
+}
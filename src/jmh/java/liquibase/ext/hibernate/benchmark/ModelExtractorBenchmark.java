@@ -0,0 +1,106 @@
+package liquibase.ext.hibernate.benchmark;
+
+import jakarta.persistence.GeneratedValue;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.model.HibernateModelExtractor;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.RootClass;
+import org.hibernate.mapping.SimpleValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the extraction of the relational model from metadata built once per trial. {@link #reflectiveAccessors()} and {@link #cachedAccessors()}
+ * isolate the hibernate internals the extractor reads for the identifier of each entity: looked up through reflection on every call, as the extractor
+ * used to, and resolved once as method handles, as it does now. Dividing by {@code entities} gives the overhead per entity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelExtractorBenchmark extends SyntheticModelBenchmark {
+
+    private static final ClassValue<MethodHandle> HAS_DIRECT_ANNOTATION_USAGE = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return MethodHandles.publicLookup().unreflect(type.getMethod("hasDirectAnnotationUsage", Class.class))
+                        .asType(MethodType.methodType(boolean.class, Object.class, Class.class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private HibernateDatabase database;
+    private final List<SimpleValue> identifiers = new ArrayList<>();
+    private MethodHandle getMemberDetails;
+
+    @Setup
+    public void setUp() throws Exception {
+        generateModel();
+        database = model.open(model.getUrl(SyntheticModel.Flavour.SPRING_PACKAGE));
+        for (PersistentClass entityBinding : database.getMetadata().getEntityBindings()) {
+            if (entityBinding instanceof RootClass && entityBinding.getIdentifier() instanceof SimpleValue identifier) {
+                identifiers.add(identifier);
+            }
+        }
+        getMemberDetails = MethodHandles.publicLookup().unreflect(SimpleValue.class.getMethod("getMemberDetails"))
+                .asType(MethodType.methodType(Object.class, SimpleValue.class));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        identifiers.clear();
+        database.close();
+        closeModel();
+    }
+
+    @Benchmark
+    public HibernateRelationalModel extract() throws Exception {
+        return model.run(() -> new HibernateModelExtractor(database).extract());
+    }
+
+    @Benchmark
+    public int reflectiveAccessors() throws ReflectiveOperationException {
+        int generated = 0;
+        for (SimpleValue identifier : identifiers) {
+            Object memberDetails = SimpleValue.class.getMethod("getMemberDetails").invoke(identifier);
+            if (memberDetails != null
+                    && (boolean) memberDetails.getClass().getMethod("hasDirectAnnotationUsage", Class.class).invoke(memberDetails, GeneratedValue.class)) {
+                generated++;
+            }
+        }
+        return generated;
+    }
+
+    @Benchmark
+    public int cachedAccessors() throws Throwable {
+        int generated = 0;
+        for (SimpleValue identifier : identifiers) {
+            Object memberDetails = getMemberDetails.invoke(identifier);
+            if (memberDetails != null
+                    && (boolean) HAS_DIRECT_ANNOTATION_USAGE.get(memberDetails.getClass()).invoke(memberDetails, GeneratedValue.class)) {
+                generated++;
+            }
+        }
+        return generated;
+    }
+}
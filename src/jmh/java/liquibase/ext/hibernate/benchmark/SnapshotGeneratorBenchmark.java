@@ -0,0 +1,77 @@
+package liquibase.ext.hibernate.benchmark;
+
+import liquibase.CatalogAndSchema;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Sequence;
+import liquibase.structure.core.Table;
+import liquibase.structure.core.UniqueConstraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a snapshot of the hibernate database per snapshot generator. Each snapshot includes only tables and the measured type,
+ * so the table generator's share can be subtracted using the {@code Table} result. The model is read once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotGeneratorBenchmark extends SyntheticModelBenchmark {
+
+    @Param({"Table", "Column", "PrimaryKey", "ForeignKey", "Index", "UniqueConstraint", "Sequence"})
+    public String type;
+
+    private HibernateDatabase database;
+    private Class<? extends DatabaseObject>[] types;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        generateModel();
+        database = model.open(model.getUrl(SyntheticModel.Flavour.SPRING_PACKAGE, HibernateDatabase.RELEASE_METADATA_PROPERTY + "=true"));
+        Class<? extends DatabaseObject> snapshotType = switch (type) {
+            case "Table" -> Table.class;
+            case "Column" -> Column.class;
+            case "PrimaryKey" -> PrimaryKey.class;
+            case "ForeignKey" -> ForeignKey.class;
+            case "Index" -> Index.class;
+            case "UniqueConstraint" -> UniqueConstraint.class;
+            case "Sequence" -> Sequence.class;
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        };
+        types = snapshotType == Table.class || snapshotType == Sequence.class
+                ? new Class[]{snapshotType}
+                : new Class[]{Table.class, snapshotType};
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        database.close();
+        closeModel();
+    }
+
+    @Benchmark
+    public DatabaseSnapshot snapshot() throws Exception {
+        return model.run(() -> SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database, types)));
+    }
+}
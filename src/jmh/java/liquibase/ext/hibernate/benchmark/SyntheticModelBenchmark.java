@@ -0,0 +1,56 @@
+package liquibase.ext.hibernate.benchmark;
+
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModelGenerator;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Base of the benchmarks that read a {@link SyntheticModelGenerator synthetic model}. The shape of the model is set with the JMH parameters,
+ * for example {@code -p entities=5000 -p subclasses=2}. Generated models are kept in {@value #DIRECTORY_PROPERTY}, {@code target/synthetic-models}
+ * by default, so a model is only compiled the first time it is used.
+ */
+@State(Scope.Benchmark)
+public abstract class SyntheticModelBenchmark {
+
+    public static final String DIRECTORY_PROPERTY = "liquibase.hibernate.benchmark.directory";
+
+    @Param({"100", "1000"})
+    public int entities;
+
+    @Param({"10"})
+    public int columns;
+
+    @Param({"2"})
+    public int foreignKeys;
+
+    @Param({"1"})
+    public int indexes;
+
+    @Param({"0"})
+    public int subclasses;
+
+    protected SyntheticModel model;
+
+    protected SyntheticModel generateModel() throws IOException {
+        SyntheticModelGenerator generator = new SyntheticModelGenerator()
+                .entities(entities)
+                .columns(columns)
+                .foreignKeys(foreignKeys)
+                .indexes(indexes)
+                .subclasses(subclasses);
+        model = generator.generate(Paths.get(System.getProperty(DIRECTORY_PROPERTY, "target/synthetic-models")));
+        return model;
+    }
+
+    protected void closeModel() throws IOException {
+        if (model != null) {
+            model.close();
+            model = null;
+        }
+    }
+}
@@ -4,11 +4,10 @@ import liquibase.database.DatabaseConnection;
 import liquibase.exception.DatabaseException;
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.cfgxml.spi.LoadedConfig;
+import org.hibernate.boot.cfgxml.spi.MappingReference;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
-import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
-import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
-import org.hibernate.service.ServiceRegistry;
 
 /**
  * Database implementation for "classic" hibernate configurations.
@@ -34,26 +33,28 @@ public class HibernateClassicDatabase extends HibernateDatabase {
 
     protected Metadata buildMetadataFromPath() throws DatabaseException {
         this.configuration = new Configuration();
-        this.configuration.configure(getHibernateConnection().getPath());
+        bootstrapPhase("configure", () -> configuration.configure(getHibernateConnection().getPath()));
 
         return super.buildMetadataFromPath();
     }
 
+    /**
+     * Registers the mappings listed in the configuration file parsed by {@link #buildMetadataFromPath()}.
+     * The mapping references are applied to the sources directly, so the file is not parsed again and no SessionFactory is built.
+     */
     @Override
     protected void configureSources(MetadataSources sources) throws DatabaseException {
-        Configuration config = new Configuration(sources);
-        config.configure(getHibernateConnection().getPath());
-
-        config.setProperty(HibernateDatabase.HIBERNATE_TEMP_USE_JDBC_METADATA_DEFAULTS, Boolean.FALSE.toString());
-        config.setProperty("hibernate.cache.use_second_level_cache", "false");
-
-        ServiceRegistry standardRegistry = configuration.getStandardServiceRegistryBuilder()
-                .applySettings(config.getProperties())
-                .addService(ConnectionProvider.class, new NoOpConnectionProvider())
-                .addService(MultiTenantConnectionProvider.class, new NoOpMultiTenantConnectionProvider())
-                .build();
+        if (configuration == null) {
+            this.configuration = new Configuration();
+            this.configuration.configure(getHibernateConnection().getPath());
+        }
 
-        config.buildSessionFactory(standardRegistry);
+        LoadedConfig cfgXml = configuration.getStandardServiceRegistryBuilder().getAggregatedCfgXml();
+        if (cfgXml != null) {
+            for (MappingReference mappingReference : cfgXml.getMappingReferences()) {
+                mappingReference.apply(sources);
+            }
+        }
     }
 
     @Override
@@ -8,6 +8,14 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.ext.hibernate.customfactory.CustomMetadataFactory;
 import liquibase.ext.hibernate.database.connection.HibernateConnection;
 import liquibase.ext.hibernate.database.connection.HibernateDriver;
+import liquibase.ext.hibernate.jfr.BootstrapPhaseEvent;
+import liquibase.ext.hibernate.jfr.HibernateTimings;
+import liquibase.ext.hibernate.model.HibernateModelCache;
+import liquibase.ext.hibernate.model.HibernateModelExtractor;
+import liquibase.ext.hibernate.model.HibernateModelFile;
+import liquibase.ext.hibernate.model.HibernateModelRegistry;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
+import liquibase.ext.hibernate.snapshot.HibernateSnapshotStats;
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataBuilder;
 import org.hibernate.boot.MetadataSources;
@@ -21,8 +29,24 @@ import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
 import org.hibernate.service.ServiceRegistry;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.util.concurrent.atomic.AtomicReference;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Base class for all Hibernate Databases. This extension interacts with Hibernate by creating standard liquibase.database.Database implementations that
@@ -31,12 +55,64 @@ import java.util.concurrent.atomic.AtomicReference;
 public abstract class HibernateDatabase extends AbstractJdbcDatabase {
 
     private Metadata metadata;
+    private HibernateRelationalModel relationalModel;
+    private HibernateModelRegistry.SharedModel sharedModel;
+    private List<String> xmlMappingNames = List.of();
+    private final HibernateTimings timings = new HibernateTimings();
+    private final HibernateSnapshotStats snapshotStats = new HibernateSnapshotStats();
     protected Dialect dialect;
 
     private boolean indexesForForeignKeys = false;
     public static final String DEFAULT_SCHEMA = "HIBERNATE";
     public static final String HIBERNATE_TEMP_USE_JDBC_METADATA_DEFAULTS = "hibernate.temp.use_jdbc_metadata_defaults";
 
+    /**
+     * URL property that, when true, releases the hibernate {@link Metadata} (and any bootstrap objects holding it) as soon as the
+     * {@link HibernateRelationalModel} has been extracted. This lowers peak heap on large models, but {@link #getMetadata()} then returns null.
+     */
+    public static final String RELEASE_METADATA_PROPERTY = "releaseMetadata";
+
+    /**
+     * URL property with the maximum number of seconds hibernate may take to build its metadata. Without it the bootstrap may take as long as it needs.
+     */
+    public static final String BOOTSTRAP_TIMEOUT_PROPERTY = "bootstrapTimeout";
+
+    /**
+     * URL property that, when true, adds an index to the snapshot for each foreign key whose columns are not already the leading columns
+     * of the primary key, a unique key or an index, so the diff creates them. It has no effect for dialects whose databases index foreign keys themselves.
+     */
+    public static final String FOREIGN_KEY_INDEXES_PROPERTY = "foreignKeyIndexes";
+
+    /**
+     * URL property that, when true, has the diff create missing indexes without blocking writes where the target database supports it.
+     * See {@link liquibase.ext.hibernate.diff.MissingIndexChangeGenerator}.
+     */
+    public static final String ONLINE_INDEXES_PROPERTY = "onlineIndexes";
+
+    private static final Set<String> NON_MODEL_PROPERTIES = Set.of(
+            HibernateModelCache.METADATA_CACHE_PROPERTY,
+            HibernateModelRegistry.SHARE_MODEL_PROPERTY,
+            HibernateModelFile.EXPORT_MODEL_PROPERTY,
+            ONLINE_INDEXES_PROPERTY,
+            HibernateEjb3Database.METADATA_ONLY_PROPERTY,
+            HibernateSpringPackageDatabase.PARALLEL_SCAN_PROPERTY,
+            RELEASE_METADATA_PROPERTY,
+            BOOTSTRAP_TIMEOUT_PROPERTY,
+            FOREIGN_KEY_INDEXES_PROPERTY);
+
+    private static final ExecutorService DEFAULT_BOOTSTRAP_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "liquibase-hibernate-bootstrap-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private static volatile ExecutorService bootstrapExecutor = DEFAULT_BOOTSTRAP_EXECUTOR;
+
     public HibernateDatabase() {
         setDefaultCatalogName(DEFAULT_SCHEMA);
         setDefaultSchemaName(DEFAULT_SCHEMA);
@@ -67,17 +143,202 @@ public abstract class HibernateDatabase extends AbstractJdbcDatabase {
         super.setConnection(conn);
 
         try {
+            boolean shareModel = Boolean.parseBoolean(getHibernateConnection().getProperties().getProperty(HibernateModelRegistry.SHARE_MODEL_PROPERTY));
+            ClassLoader classLoader = Scope.getCurrentScope().getClassLoader();
+            if (shareModel) {
+                HibernateModelRegistry.SharedModel registered = HibernateModelRegistry.getInstance().acquire(getConfigurationKey(), classLoader);
+                if (registered != null) {
+                    Scope.getCurrentScope().getLog(getClass()).info("Using shared hibernate model for " + getConnection().getURL());
+                    useSharedModel(registered);
+                    modelReady();
+                    return;
+                }
+            }
+
+            HibernateModelFile.ExportedModel exportedModel = loadExportedModel();
+            if (exportedModel != null) {
+                this.dialect = createDialect(exportedModel.dialectName());
+                this.relationalModel = exportedModel.model();
+                if (shareModel) {
+                    useSharedModel(HibernateModelRegistry.getInstance().register(getConfigurationKey(), classLoader, relationalModel, exportedModel.dialectName()));
+                }
+
+                modelReady();
+                return;
+            }
+
+            HibernateModelCache modelCache = createModelCache();
+            if (modelCache != null) {
+                HibernateModelCache.CachedModel cachedModel = bootstrapPhase("loadModelCache", modelCache::load);
+                if (cachedModel != null) {
+                    Scope.getCurrentScope().getLog(getClass()).info("Using cached hibernate model " + modelCache.getFile());
+                    this.dialect = createDialect(cachedModel.dialectName());
+                    this.relationalModel = cachedModel.model();
+                    if (shareModel) {
+                        useSharedModel(HibernateModelRegistry.getInstance().register(getConfigurationKey(), classLoader, relationalModel, cachedModel.dialectName()));
+                    }
+
+                    modelReady();
+                    return;
+                }
+            }
+
             Scope.getCurrentScope().getLog(getClass()).info("Reading hibernate configuration " + getConnection().getURL());
 
-            this.metadata = buildMetadata();
+            this.metadata = bootstrapPhase("buildMetadata", this::buildMetadata);
+            this.relationalModel = bootstrapPhase("extractModel", () -> new HibernateModelExtractor(this).extract());
+
+            if (modelCache != null) {
+                bootstrapPhase("storeModelCache", () -> {
+                    List<String> resourceNames = new ArrayList<>(getMappingResources());
+                    resourceNames.add(getHibernateConnection().getPath());
+                    modelCache.store(relationalModel, dialect == null ? null : dialect.getClass().getName(), metadata, resourceNames,
+                            getScannedPackages(), getScannedLocations());
+                    return null;
+                });
+            }
+
+            if (shareModel) {
+                this.sharedModel = HibernateModelRegistry.getInstance().register(getConfigurationKey(), classLoader, relationalModel, dialect == null ? null : dialect.getClass().getName());
+                this.relationalModel = sharedModel.getModel();
+            }
 
-            afterSetup();
+            if (Boolean.parseBoolean(getHibernateConnection().getProperties().getProperty(RELEASE_METADATA_PROPERTY))) {
+                releaseMetadata();
+            }
+
+            modelReady();
         } catch (DatabaseException e) {
             throw new UnexpectedLiquibaseException(e);
         }
 
     }
 
+    /**
+     * Exports the model if the {@value HibernateModelFile#EXPORT_MODEL_PROPERTY} URL property is set, then calls {@link #afterSetup()}.
+     */
+    private void modelReady() throws DatabaseException {
+        String exportFile = getHibernateConnection().getProperties().getProperty(HibernateModelFile.EXPORT_MODEL_PROPERTY);
+        if (exportFile != null && !exportFile.isBlank()) {
+            exportModel(Paths.get(exportFile));
+        }
+        afterSetup();
+    }
+
+    /**
+     * Called by {@link #setConnection(DatabaseConnection)} before the model cache is checked.
+     * Databases that read a previously exported model instead of bootstrapping hibernate return it here; the default returns null.
+     */
+    protected HibernateModelFile.ExportedModel loadExportedModel() throws DatabaseException {
+        return null;
+    }
+
+    /**
+     * Writes the relational model to a file that can be read back through a {@code hibernate:snapshot:<file>} URL.
+     */
+    public void exportModel(Path file) throws DatabaseException {
+        try {
+            HibernateModelFile.write(relationalModel, dialect == null ? null : dialect.getClass().getName(), file);
+            Scope.getCurrentScope().getLog(getClass()).info("Exported hibernate model to " + file);
+        } catch (IOException e) {
+            throw new DatabaseException("Cannot export hibernate model to " + file, e);
+        }
+    }
+
+    private void useSharedModel(HibernateModelRegistry.SharedModel sharedModel) throws DatabaseException {
+        this.sharedModel = sharedModel;
+        this.relationalModel = sharedModel.getModel();
+        if (this.dialect == null) {
+            this.dialect = createDialect(sharedModel.getDialectName());
+        }
+    }
+
+    /**
+     * Returns everything about the connection that affects the relational model: the URL prefix and path, and the URL properties in sorted order.
+     * Properties that only control how the model is obtained, such as {@value HibernateModelCache#METADATA_CACHE_PROPERTY}, are left out.
+     * This is the key used by the {@link HibernateModelCache} and the {@link HibernateModelRegistry}.
+     */
+    public String getConfigurationKey() {
+        HibernateConnection connection = getHibernateConnection();
+        StringBuilder configurationKey = new StringBuilder(connection.getPrefix()).append(':').append(connection.getPath());
+        new TreeMap<>(connection.getProperties()).forEach((key, value) -> {
+            if (!NON_MODEL_PROPERTIES.contains(key)) {
+                configurationKey.append('&').append(key).append('=').append(value);
+            }
+        });
+        return configurationKey.toString();
+    }
+
+    /**
+     * Returns the model cache configured with the {@value HibernateModelCache#METADATA_CACHE_PROPERTY} URL property, or null if caching is not enabled.
+     */
+    protected HibernateModelCache createModelCache() {
+        String cacheDirectory = getHibernateConnection().getProperties().getProperty(HibernateModelCache.METADATA_CACHE_PROPERTY);
+        if (cacheDirectory == null || cacheDirectory.isBlank()) {
+            return null;
+        }
+        return new HibernateModelCache(Paths.get(cacheDirectory), getConfigurationKey(), Scope.getCurrentScope().getClassLoader());
+    }
+
+    /**
+     * Returns the packages this database finds entities in by scanning. Scanning includes subpackages, so the {@link HibernateModelCache}
+     * fingerprints everything below them and an entity added anywhere there invalidates the cached model.
+     * Called after the metadata is built; the default returns none.
+     */
+    protected Collection<String> getScannedPackages() {
+        return List.of();
+    }
+
+    /**
+     * Returns the URLs of the class path roots or jars this database finds entities in by scanning, such as a persistence unit root.
+     * The {@link HibernateModelCache} fingerprints them as a whole. Called after the metadata is built; the default returns none.
+     */
+    protected Collection<String> getScannedLocations() {
+        return List.of();
+    }
+
+    /**
+     * Returns the mapping files named by the configuration, as class path resource names or URLs, for the {@link HibernateModelCache} to fingerprint.
+     * Called after the metadata is built. The default returns the XML mappings {@link #buildMetadataFromPath()} added to its {@link MetadataSources},
+     * such as the hbm.xml files named by a hibernate.cfg.xml.
+     */
+    protected Collection<String> getMappingResources() {
+        return xmlMappingNames;
+    }
+
+    /**
+     * Releases this database's reference to a model shared through the {@link HibernateModelRegistry},
+     * and logs the {@link #getSnapshotStats() snapshot statistics} and {@link #getTimings() timings} of the run.
+     */
+    @Override
+    public void close() throws DatabaseException {
+        if (!snapshotStats.isEmpty() && getConnection() != null) {
+            Scope.getCurrentScope().getLog(getClass()).info("Hibernate snapshot of " + getConnection().getURL() + ": " + snapshotStats.toLogLine());
+            snapshotStats.clear();
+        }
+        if (!timings.isEmpty() && getConnection() != null) {
+            Scope.getCurrentScope().getLog(getClass()).info("Hibernate timings for " + getConnection().getURL() + ":\n" + timings.toSummaryTable());
+            timings.clear();
+        }
+        if (sharedModel != null) {
+            HibernateModelRegistry.getInstance().release(sharedModel);
+            sharedModel = null;
+        }
+        super.close();
+    }
+
+    private Dialect createDialect(String dialectName) throws DatabaseException {
+        if (dialectName == null) {
+            return new HibernateGenericDialect();
+        }
+        try {
+            return (Dialect) Thread.currentThread().getContextClassLoader().loadClass(dialectName).getDeclaredConstructor().newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
+                 NoSuchMethodException | ClassNotFoundException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
     /**
      * Called by {@link #createMetadataSources()} to determine the correct dialect name based on url parameters, configuration files, etc.
      */
@@ -94,11 +355,34 @@ public abstract class HibernateDatabase extends AbstractJdbcDatabase {
 
     /**
      * Return the hibernate {@link Metadata} used by this database.
+     * Returns null if the model was served from the {@link HibernateModelCache} and hibernate was not bootstrapped,
+     * or if it was released because {@value #RELEASE_METADATA_PROPERTY} is set.
      */
     public Metadata getMetadata() {
         return metadata;
     }
 
+    /**
+     * Returns the time spent in each bootstrap phase and snapshot generator operation for this database so far.
+     */
+    public HibernateTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * Returns how many objects of each type the snapshot generators produced from this database's model, and the time each generator spent.
+     */
+    public HibernateSnapshotStats getSnapshotStats() {
+        return snapshotStats;
+    }
+
+    /**
+     * Return the relational model the snapshot generators read, extracted from {@link #getMetadata()} when the connection is set.
+     */
+    public HibernateRelationalModel getRelationalModel() {
+        return relationalModel;
+    }
+
 
     /**
      * Convenience method to return the underlying HibernateConnection in the JdbcConnection returned by {@link #getConnection()}
@@ -151,29 +435,52 @@ public abstract class HibernateDatabase extends AbstractJdbcDatabase {
      * but this method can be overridden with any provider-specific implementations needed.
      */
     protected Metadata buildMetadataFromPath() throws DatabaseException {
-        MetadataSources sources = createMetadataSources();
-        configureSources(sources);
+        MetadataSources sources = bootstrapPhase("createMetadataSources", this::createMetadataSources);
+        bootstrapPhase("configureSources", () -> {
+            configureSources(sources);
+            return null;
+        });
+        List<String> xmlMappingNames = new ArrayList<>();
+        for (var binding : sources.getXmlBindings()) {
+            xmlMappingNames.add(binding.getOrigin().getName());
+        }
+        this.xmlMappingNames = xmlMappingNames;
 
         MetadataBuilder metadataBuilder = sources.getMetadataBuilder();
-        configureMetadataBuilder(metadataBuilder);
+        bootstrapPhase("configureMetadataBuilder", () -> {
+            configureMetadataBuilder(metadataBuilder);
+            return null;
+        });
 
-        AtomicReference<Throwable> thrownException = new AtomicReference<>();
-        AtomicReference<Metadata> result = new AtomicReference<>();
+        return bootstrapPhase("build", () -> runBootstrap(metadataBuilder::build));
+    }
 
-        Thread t = new Thread(() -> result.set(metadataBuilder.build()));
-        t.setContextClassLoader(Scope.getCurrentScope().getClassLoader());
-        t.setUncaughtExceptionHandler((_t,e) -> thrownException.set(e));
-        t.start();
+    /**
+     * Runs one phase of reading the hibernate configuration, recording it as a {@link BootstrapPhaseEvent} and in the {@link #getTimings() timings}.
+     */
+    protected <T> T bootstrapPhase(String phase, BootstrapPhase<T> task) throws DatabaseException {
+        BootstrapPhaseEvent event = new BootstrapPhaseEvent();
+        event.begin();
+        long start = System.nanoTime();
         try {
-            t.join();
-        } catch (InterruptedException e) {
-            throw new DatabaseException(e);
-        }
-        Throwable thrown = thrownException.get();
-        if (thrown != null) {
-            throw new DatabaseException(thrown);
+            return task.run();
+        } finally {
+            timings.record("bootstrap " + phase, System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.url = getConnection() == null ? null : getConnection().getURL();
+                event.phase = phase;
+                event.commit();
+            }
         }
-        return result.get();
+    }
+
+    /**
+     * A phase of reading the hibernate configuration, run by {@link #bootstrapPhase(String, BootstrapPhase)}.
+     */
+    @FunctionalInterface
+    protected interface BootstrapPhase<T> {
+        T run() throws DatabaseException;
     }
 
 
@@ -260,6 +567,81 @@ public abstract class HibernateDatabase extends AbstractJdbcDatabase {
         }
     }
 
+    /**
+     * Sets the executor hibernate bootstraps run on, for example to bound how many run concurrently in a process that bootstraps many URLs.
+     * Passing null restores the default, a cached pool of daemon threads.
+     */
+    public static void setBootstrapExecutor(ExecutorService executor) {
+        bootstrapExecutor = executor == null ? DEFAULT_BOOTSTRAP_EXECUTOR : executor;
+    }
+
+    public static ExecutorService getBootstrapExecutor() {
+        return bootstrapExecutor;
+    }
+
+    /**
+     * Runs a hibernate bootstrap task on the {@link #getBootstrapExecutor() bootstrap executor} with the liquibase class loader as context class loader,
+     * and waits for it for at most {@value #BOOTSTRAP_TIMEOUT_PROPERTY} seconds.
+     * If the calling thread is interrupted or the timeout expires, the task is cancelled.
+     */
+    protected <T> T runBootstrap(Callable<T> task) throws DatabaseException {
+        Long timeout = getBootstrapTimeout();
+        ClassLoader classLoader = Scope.getCurrentScope().getClassLoader();
+        Future<T> future = bootstrapExecutor.submit(() -> {
+            Thread thread = Thread.currentThread();
+            ClassLoader originalClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(classLoader);
+            try {
+                return task.call();
+            } finally {
+                thread.setContextClassLoader(originalClassLoader);
+            }
+        });
+
+        try {
+            if (timeout == null) {
+                return future.get();
+            }
+            return future.get(timeout, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while building hibernate metadata", e);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new DatabaseException("Hibernate metadata was not built within " + timeout + " seconds", e);
+        } catch (ExecutionException e) {
+            throw new DatabaseException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the {@value #BOOTSTRAP_TIMEOUT_PROPERTY} URL property in seconds, or null if it is not set.
+     */
+    private Long getBootstrapTimeout() throws DatabaseException {
+        String value = getHibernateConnection().getProperties().getProperty(BOOTSTRAP_TIMEOUT_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            long timeout = Long.parseLong(value.trim());
+            if (timeout > 0) {
+                return timeout;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new DatabaseException("Invalid " + BOOTSTRAP_TIMEOUT_PROPERTY + " '" + value + "': expected a positive number of seconds");
+    }
+
+    /**
+     * Called by {@link #setConnection(DatabaseConnection)} once the relational model has been extracted and {@value #RELEASE_METADATA_PROPERTY} is set.
+     * Drops the reference to the {@link Metadata}; subclasses holding other bootstrap objects should release them too.
+     */
+    protected void releaseMetadata() {
+        this.metadata = null;
+    }
+
     /**
      * Perform any post-configuration setting logic.
      */
@@ -299,6 +681,13 @@ public abstract class HibernateDatabase extends AbstractJdbcDatabase {
         return indexesForForeignKeys;
     }
 
+    /**
+     * Returns true if the snapshot should contain an index backing each foreign key, as set with the {@value #FOREIGN_KEY_INDEXES_PROPERTY} URL property.
+     */
+    public boolean addsIndexesForForeignKeys() {
+        return !createsIndexesForForeignKeys() && Boolean.parseBoolean(getProperty(FOREIGN_KEY_INDEXES_PROPERTY));
+    }
+
     @Override
     public Integer getDefaultPort() {
         return 0;
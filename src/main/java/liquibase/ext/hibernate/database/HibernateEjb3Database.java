@@ -1,8 +1,28 @@
 package liquibase.ext.hibernate.database;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
 
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
@@ -10,8 +30,10 @@ import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.jpa.HibernatePersistenceProvider;
 import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.internal.ParsedPersistenceXmlDescriptor;
 import org.hibernate.jpa.boot.spi.EntityManagerFactoryBuilder;
 import org.hibernate.jpa.boot.spi.PersistenceUnitDescriptor;
+import org.hibernate.mapping.PersistentClass;
 
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.metamodel.ManagedType;
@@ -25,8 +47,28 @@ import liquibase.exception.DatabaseException;
  */
 public class HibernateEjb3Database extends HibernateDatabase {
 
+    /**
+     * URL property controlling whether only the hibernate metadata is bootstrapped (the default) or a complete {@link EntityManagerFactory}.
+     * The snapshot only needs the metadata; building the entity manager factory also initializes persisters, the query engine and so on.
+     * Set to false to get the previous behavior, where {@link #entityManagerFactory} is populated.
+     */
+    public static final String METADATA_ONLY_PROPERTY = "metadataOnly";
+
+    /**
+     * URL property with a comma-separated list of additional packages whose package-level annotations, such as generator definitions, are read.
+     * The packages of the classes listed in the persistence unit, or found where it is scanned, are always included. See {@link #getAnnotatedPackageNames(Collection)}.
+     */
+    public static final String ADDITIONAL_PACKAGES_PROPERTY = "additionalPackages";
+
     protected EntityManagerFactory entityManagerFactory;
 
+    /**
+     * The persistence unit read by {@link #createEntityManagerFactoryBuilder()}, used to tell the model cache which locations and mapping files it depends on.
+     */
+    protected PersistenceUnitDescriptor persistenceUnit;
+    private EntityManagerFactoryBuilderImpl entityManagerFactoryBuilder;
+    private Map<String, Object> entityManagerFactoryProperties;
+
     @Override
     public String getShortName() {
         return "hibernateEjb3";
@@ -44,16 +86,24 @@ public class HibernateEjb3Database extends HibernateDatabase {
     }
 
     /**
-     * Calls {@link #createEntityManagerFactoryBuilder()} to create and save the entity manager factory.
+     * Calls {@link #createEntityManagerFactoryBuilder()} and stops after metadata binding,
+     * unless {@value #METADATA_ONLY_PROPERTY} is false in which case the entity manager factory is created and saved.
      */
     @Override
     protected Metadata buildMetadataFromPath() throws DatabaseException {
         
-        EntityManagerFactoryBuilderImpl builder = createEntityManagerFactoryBuilder();
-
-        this.entityManagerFactory = builder.build();
+        EntityManagerFactoryBuilderImpl builder = bootstrapPhase("createEntityManagerFactoryBuilder", this::createEntityManagerFactoryBuilder);
 
-        Metadata metadata = builder.getMetadata();
+        Metadata metadata;
+        if (isMetadataOnly()) {
+            metadata = bootstrapPhase("metadata", () -> runBootstrap(builder::metadata));
+            this.entityManagerFactoryBuilder = builder;
+            this.entityManagerFactoryProperties = new HashMap<>(builder.getConfigurationValues());
+        } else {
+            this.entityManagerFactory = bootstrapPhase("build", () -> runBootstrap(builder::build));
+            this.entityManagerFactoryProperties = new HashMap<>(entityManagerFactory.getProperties());
+            metadata = builder.getMetadata();
+        }
         
         String dialectString = findDialectName();
         if (dialectString != null) {
@@ -71,8 +121,15 @@ public class HibernateEjb3Database extends HibernateDatabase {
         return metadata;
     }
 
+    /**
+     * Returns true unless the {@value #METADATA_ONLY_PROPERTY} URL property is set to false.
+     */
+    protected boolean isMetadataOnly() {
+        return !"false".equalsIgnoreCase(getHibernateConnection().getProperties().getProperty(METADATA_ONLY_PROPERTY));
+    }
+
     protected EntityManagerFactoryBuilderImpl createEntityManagerFactoryBuilder() {
-        MyHibernatePersistenceProvider persistenceProvider = new MyHibernatePersistenceProvider();
+        MyHibernatePersistenceProvider persistenceProvider = new MyHibernatePersistenceProvider(this::getAnnotatedPackageNames);
 
         Map<String, Object> properties = new HashMap<>();
         properties.put(HibernateDatabase.HIBERNATE_TEMP_USE_JDBC_METADATA_DEFAULTS, Boolean.FALSE.toString());
@@ -80,14 +137,15 @@ public class HibernateEjb3Database extends HibernateDatabase {
         properties.put(AvailableSettings.USE_NATIONALIZED_CHARACTER_DATA, getProperty(AvailableSettings.USE_NATIONALIZED_CHARACTER_DATA));
 
         final EntityManagerFactoryBuilderImpl builder = (EntityManagerFactoryBuilderImpl) persistenceProvider.getEntityManagerFactoryBuilderOrNull(getHibernateConnection().getPath(), properties, null);
+        this.persistenceUnit = persistenceProvider.persistenceUnit;
         return builder;
     }
 
     @Override
     public String getProperty(String name) {
         String property = null;
-        if (entityManagerFactory != null) {
-            property = (String) entityManagerFactory.getProperties().get(name);
+        if (entityManagerFactoryProperties != null) {
+            property = (String) entityManagerFactoryProperties.get(name);
         }
 
         if (property == null) {
@@ -105,30 +163,126 @@ public class HibernateEjb3Database extends HibernateDatabase {
             return dialectName;
         }
 
-        return (String) entityManagerFactory.getProperties().get(AvailableSettings.DIALECT);
+        return (String) entityManagerFactoryProperties.get(AvailableSettings.DIALECT);
     }
 
     /**
-     * Adds sources based on what is in the saved entityManagerFactory
+     * Returns the persistence unit root and jar files, unless the unit excludes unlisted classes and so is not scanned.
      */
     @Override
-    protected void configureSources(MetadataSources sources) throws DatabaseException {
-        for (ManagedType<?> managedType : entityManagerFactory.getMetamodel().getManagedTypes()) {
-            Class<?> javaType = managedType.getJavaType();
-            if (javaType == null) {
-                continue;
+    protected Collection<String> getScannedLocations() {
+        List<String> locations = new ArrayList<>();
+        if (persistenceUnit != null && !persistenceUnit.isExcludeUnlistedClasses()) {
+            if (persistenceUnit.getPersistenceUnitRootUrl() != null) {
+                locations.add(persistenceUnit.getPersistenceUnitRootUrl().toExternalForm());
             }
+            if (persistenceUnit.getJarFileUrls() != null) {
+                for (URL jarFileUrl : persistenceUnit.getJarFileUrls()) {
+                    locations.add(jarFileUrl.toExternalForm());
+                }
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Adds the mapping files listed in the persistence unit.
+     */
+    @Override
+    protected Collection<String> getMappingResources() {
+        List<String> resources = new ArrayList<>(super.getMappingResources());
+        if (persistenceUnit != null && persistenceUnit.getMappingFileNames() != null) {
+            resources.addAll(persistenceUnit.getMappingFileNames());
+        }
+        return resources;
+    }
+
+    /**
+     * Closes the entity manager factory, or releases the builder's service registry in metadata-only mode, as well.
+     * The configuration properties stay available through {@link #getProperty(String)}.
+     */
+    @Override
+    protected void releaseMetadata() {
+        super.releaseMetadata();
+        if (entityManagerFactory != null) {
+            entityManagerFactory.close();
+            entityManagerFactory = null;
+        }
+        if (entityManagerFactoryBuilder != null) {
+            entityManagerFactoryBuilder.cancel();
+            entityManagerFactoryBuilder = null;
+        }
+    }
+
+    /**
+     * Adds sources based on the managed types of the saved entityManagerFactory, or of the bootstrapped metadata in metadata-only mode.
+     * Only the packages from {@link #getAnnotatedPackageNames(Collection)} are added, not every package loaded in the JVM.
+     * {@link #buildMetadataFromPath()} does not call this, it hands the same packages to the persistence unit instead.
+     */
+    @Override
+    protected void configureSources(MetadataSources sources) throws DatabaseException {
+        List<String> classNames = new ArrayList<>();
+        for (Class<?> javaType : getManagedClasses()) {
             sources.addAnnotatedClass(javaType);
+            classNames.add(javaType.getName());
+        }
+
+        for (String packageName : getAnnotatedPackageNames(classNames)) {
+            sources.addPackage(packageName);
+        }
+    }
+
+    /**
+     * Returns the packages whose package-level annotations are read: the packages of the given classes,
+     * and the ones listed in {@value #ADDITIONAL_PACKAGES_PROPERTY}.
+     */
+    protected Set<String> getAnnotatedPackageNames(Collection<String> classNames) {
+        Set<String> packageNames = new TreeSet<>();
+        for (String className : classNames) {
+            int lastDot = className.lastIndexOf('.');
+            if (lastDot > 0) {
+                packageNames.add(className.substring(0, lastDot));
+            }
+        }
+
+        String additionalPackages = getHibernateConnection().getProperties().getProperty(ADDITIONAL_PACKAGES_PROPERTY);
+        if (additionalPackages != null) {
+            for (String packageName : additionalPackages.split(",")) {
+                if (!packageName.isBlank()) {
+                    packageNames.add(packageName.trim());
+                }
+            }
         }
+        return packageNames;
+    }
 
-        Package[] packages = Package.getPackages();
-        for (Package p : packages) {
-            sources.addPackage(p);
+    private Set<Class<?>> getManagedClasses() {
+        Set<Class<?>> managedClasses = new LinkedHashSet<>();
+        if (entityManagerFactory != null) {
+            for (ManagedType<?> managedType : entityManagerFactory.getMetamodel().getManagedTypes()) {
+                if (managedType.getJavaType() != null) {
+                    managedClasses.add(managedType.getJavaType());
+                }
+            }
+        } else if (entityManagerFactoryBuilder != null) {
+            for (PersistentClass persistentClass : entityManagerFactoryBuilder.metadata().getEntityBindings()) {
+                if (persistentClass.getMappedClass() != null) {
+                    managedClasses.add(persistentClass.getMappedClass());
+                }
+            }
         }
+        return managedClasses;
     }
 
     private static class MyHibernatePersistenceProvider extends HibernatePersistenceProvider {
 
+        private final Function<Collection<String>, Set<String>> annotatedPackageNames;
+        private PersistenceUnitDescriptor persistenceUnit;
+
+        private MyHibernatePersistenceProvider(Function<Collection<String>, Set<String>> annotatedPackageNames) {
+            this.annotatedPackageNames = annotatedPackageNames;
+        }
+
         private void setField(final Object obj, String fieldName, final Object value) throws NoSuchFieldException, IllegalAccessException {
             final Field declaredField = obj.getClass().getDeclaredField(fieldName);
             if (declaredField.trySetAccessible()) {
@@ -151,7 +305,101 @@ public class HibernateEjb3Database extends HibernateDatabase {
             } catch (Exception ex) {
                 Scope.getCurrentScope().getLog(getClass()).severe(null, ex);
             }
+            addAnnotatedPackages(persistenceUnitDescriptor);
+            this.persistenceUnit = persistenceUnitDescriptor;
             return super.getEntityManagerFactoryBuilder(persistenceUnitDescriptor, integration, providedClassLoader);
         }
+
+        /**
+         * Lists the annotated packages in the persistence unit next to its classes, which is how JPA bootstrapping is told to read package-info.
+         * Hibernate only reads the package-info of listed packages, so the packages of the classes it would find by scanning are listed as well.
+         * Packages without a package-info class are left out, as hibernate would only warn that it cannot resolve them.
+         */
+        private void addAnnotatedPackages(PersistenceUnitDescriptor persistenceUnitDescriptor) {
+            if (!(persistenceUnitDescriptor instanceof ParsedPersistenceXmlDescriptor parsedDescriptor)) {
+                return;
+            }
+            ClassLoader classLoader = Scope.getCurrentScope().getClassLoader();
+            List<String> classNames = new ArrayList<>(parsedDescriptor.getManagedClassNames());
+            if (isScanned(parsedDescriptor)) {
+                classNames.addAll(findScannedClassNames(parsedDescriptor));
+            }
+            List<String> packageNames = new ArrayList<>();
+            for (String packageName : annotatedPackageNames.apply(classNames)) {
+                if (!parsedDescriptor.getManagedClassNames().contains(packageName)
+                        && classLoader.getResource(packageName.replace('.', '/') + "/package-info.class") != null) {
+                    packageNames.add(packageName);
+                }
+            }
+            parsedDescriptor.addClasses(packageNames);
+        }
+
+        /**
+         * Returns true if hibernate scans the persistence unit for classes: it does not exclude unlisted classes and class detection is not turned off.
+         */
+        private static boolean isScanned(ParsedPersistenceXmlDescriptor descriptor) {
+            if (descriptor.isExcludeUnlistedClasses()) {
+                return false;
+            }
+            Object detection = descriptor.getProperties().get(AvailableSettings.SCANNER_DISCOVERY);
+            return detection == null || detection.toString().contains("class");
+        }
+
+        /**
+         * Returns the names of the classes in the root and jar files of the persistence unit, the locations hibernate scans for managed types.
+         */
+        private static Set<String> findScannedClassNames(ParsedPersistenceXmlDescriptor descriptor) {
+            List<URL> locations = new ArrayList<>();
+            if (descriptor.getPersistenceUnitRootUrl() != null) {
+                locations.add(descriptor.getPersistenceUnitRootUrl());
+            }
+            if (descriptor.getJarFileUrls() != null) {
+                locations.addAll(descriptor.getJarFileUrls());
+            }
+
+            Set<String> classNames = new TreeSet<>();
+            for (URL location : locations) {
+                try {
+                    addClassNames(location, classNames);
+                } catch (IOException | URISyntaxException e) {
+                    Scope.getCurrentScope().getLog(HibernateEjb3Database.class).fine("Cannot list the classes in " + location, e);
+                }
+            }
+            return classNames;
+        }
+
+        private static void addClassNames(URL location, Set<String> classNames) throws IOException, URISyntaxException {
+            if ("file".equals(location.getProtocol())) {
+                Path path = Paths.get(location.toURI());
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> files = Files.walk(path)) {
+                        files.filter(Files::isRegularFile)
+                                .forEach(file -> addClassName(path.relativize(file).toString().replace(File.separatorChar, '/'), classNames));
+                    }
+                } else if (Files.isRegularFile(path)) {
+                    try (JarFile jarFile = new JarFile(path.toFile())) {
+                        for (JarEntry entry : Collections.list(jarFile.entries())) {
+                            addClassName(entry.getName(), classNames);
+                        }
+                    }
+                }
+            } else if ("jar".equals(location.getProtocol())) {
+                URLConnection connection = location.openConnection();
+                if (connection instanceof JarURLConnection jarConnection) {
+                    jarConnection.setUseCaches(false);
+                    try (JarFile jarFile = jarConnection.getJarFile()) {
+                        for (JarEntry entry : Collections.list(jarFile.entries())) {
+                            addClassName(entry.getName(), classNames);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static void addClassName(String path, Set<String> classNames) {
+            if (path.endsWith(".class") && !path.endsWith("package-info.class") && !path.endsWith("module-info.class") && !path.startsWith("META-INF/")) {
+                classNames.add(path.substring(0, path.length() - ".class".length()).replace('/', '.'));
+            }
+        }
     }
 }
@@ -0,0 +1,69 @@
+package liquibase.ext.hibernate.database;
+
+import liquibase.Scope;
+import liquibase.database.DatabaseConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.ext.hibernate.model.HibernateModelFile;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Database implementation for hibernate models exported with the {@value HibernateModelFile#EXPORT_MODEL_PROPERTY} URL property.
+ * A {@code hibernate:snapshot:<file>} URL reads the model from the file system, or from the classpath if no such file exists,
+ * so a model can be snapshotted and diffed without the entity classes or a hibernate bootstrap. {@link #getMetadata()} always returns null.
+ */
+public class HibernateSnapshotDatabase extends HibernateDatabase {
+
+    @Override
+    public boolean isCorrectDatabaseImplementation(DatabaseConnection conn) throws DatabaseException {
+        return conn.getURL().startsWith("hibernate:snapshot:");
+    }
+
+    @Override
+    protected HibernateModelFile.ExportedModel loadExportedModel() throws DatabaseException {
+        String path = getHibernateConnection().getPath();
+        try {
+            HibernateModelFile.ExportedModel exportedModel;
+            Path file = Paths.get(path);
+            if (Files.isRegularFile(file)) {
+                exportedModel = HibernateModelFile.read(file);
+            } else {
+                try (InputStream stream = Scope.getCurrentScope().getClassLoader().getResourceAsStream(path)) {
+                    if (stream == null) {
+                        throw new DatabaseException("Cannot find exported hibernate model " + path);
+                    }
+                    exportedModel = HibernateModelFile.read(stream);
+                }
+            }
+            Scope.getCurrentScope().getLog(getClass()).info("Read hibernate model " + path + " exported by hibernate " + exportedModel.hibernateVersion());
+            return exportedModel;
+        } catch (IOException e) {
+            throw new DatabaseException("Cannot read exported hibernate model " + path, e);
+        }
+    }
+
+    @Override
+    protected Metadata buildMetadataFromPath() throws DatabaseException {
+        throw new DatabaseException("Hibernate snapshot databases read an exported model and cannot build hibernate metadata");
+    }
+
+    @Override
+    protected void configureSources(MetadataSources sources) throws DatabaseException {
+    }
+
+    @Override
+    public String getShortName() {
+        return "hibernateSnapshot";
+    }
+
+    @Override
+    protected String getDefaultDatabaseProductName() {
+        return "Hibernate Snapshot";
+    }
+}
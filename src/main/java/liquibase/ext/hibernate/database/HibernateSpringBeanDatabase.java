@@ -42,7 +42,10 @@ public class HibernateSpringBeanDatabase extends HibernateDatabase {
      */
     @Override
     protected Metadata buildMetadataFromPath() throws DatabaseException {
-        loadBeanDefinition();
+        bootstrapPhase("loadBeanDefinition", () -> {
+            loadBeanDefinition();
+            return null;
+        });
         return super.buildMetadataFromPath();
     }
 
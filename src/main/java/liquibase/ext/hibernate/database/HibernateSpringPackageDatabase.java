@@ -2,9 +2,17 @@ package liquibase.ext.hibernate.database;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hibernate.bytecode.enhance.spi.EnhancementContext;
 import org.hibernate.cfg.AvailableSettings;
@@ -15,6 +23,8 @@ import org.hibernate.jpa.boot.spi.Bootstrap;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.orm.jpa.persistenceunit.DefaultPersistenceUnitManager;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypesScanner;
 import org.springframework.orm.jpa.persistenceunit.SmartPersistenceUnitInfo;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.core.NativeDetector;
@@ -23,6 +33,7 @@ import liquibase.Scope;
 import liquibase.database.DatabaseConnection;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.ext.hibernate.database.connection.HibernateConnection;
 
 /**
@@ -30,6 +41,13 @@ import liquibase.ext.hibernate.database.connection.HibernateConnection;
  */
 public class HibernateSpringPackageDatabase extends JpaPersistenceDatabase {
 
+    /**
+     * URL property that, when true, scans each of the comma-separated packages concurrently instead of handing them all to a single
+     * {@link DefaultPersistenceUnitManager}. The managed classes are merged in the order the packages are listed, so the result does not
+     * depend on which scan finishes first.
+     */
+    public static final String PARALLEL_SCAN_PROPERTY = "parallelScan";
+
     @Override
     public boolean isCorrectDatabaseImplementation(DatabaseConnection conn) throws DatabaseException {
         return conn.getURL().startsWith("hibernate:spring:") && !isXmlFile(conn);
@@ -88,7 +106,11 @@ public class HibernateSpringPackageDatabase extends JpaPersistenceDatabase {
             Scope.getCurrentScope().getLog(getClass()).info("Found package " + packageName);
         }
 
-        internalPersistenceUnitManager.setPackagesToScan(packagesToScan);
+        if (packagesToScan.length > 1 && Boolean.parseBoolean(getHibernateConnection().getProperties().getProperty(PARALLEL_SCAN_PROPERTY))) {
+            internalPersistenceUnitManager.setManagedTypes(scanPackagesInParallel(packagesToScan));
+        } else {
+            internalPersistenceUnitManager.setPackagesToScan(packagesToScan);
+        }
 
         internalPersistenceUnitManager.preparePersistenceUnitInfos();
         PersistenceUnitInfo persistenceUnitInfo = internalPersistenceUnitManager.obtainDefaultPersistenceUnitInfo();
@@ -112,12 +134,70 @@ public class HibernateSpringPackageDatabase extends JpaPersistenceDatabase {
         map.put(AvailableSettings.USE_NATIONALIZED_CHARACTER_DATA, getProperty(AvailableSettings.USE_NATIONALIZED_CHARACTER_DATA));
         map.put(AvailableSettings.TIMEZONE_DEFAULT_STORAGE, getProperty(AvailableSettings.TIMEZONE_DEFAULT_STORAGE));
         PersistenceUnitInfoDescriptor persistenceUnitInfoDescriptor = createPersistenceUnitInfoDescriptor(persistenceUnitInfo);
+        this.persistenceUnit = persistenceUnitInfoDescriptor;
         EntityManagerFactoryBuilderImpl builder = (EntityManagerFactoryBuilderImpl) Bootstrap.getEntityManagerFactoryBuilder(persistenceUnitInfoDescriptor, map);
         
         return builder;
     }
 
 
+    /**
+     * Scans each package on its own thread, bounded by the number of available processors, and merges the results in package order.
+     */
+    protected PersistenceManagedTypes scanPackagesInParallel(String[] packagesToScan) {
+        ClassLoader classLoader = Scope.getCurrentScope().getClassLoader();
+        int threads = Math.min(packagesToScan.length, Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "liquibase-hibernate-scan-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+        try {
+            List<Future<PersistenceManagedTypes>> scans = new ArrayList<>();
+            for (String packageName : packagesToScan) {
+                scans.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    PersistenceManagedTypes managedTypes = new PersistenceManagedTypesScanner(new DefaultResourceLoader(classLoader)).scan(packageName);
+                    Scope.getCurrentScope().getLog(getClass()).info("Scanned package " + packageName + " in " + (System.nanoTime() - start) / 1_000_000 + "ms, found "
+                            + managedTypes.getManagedClassNames().size() + " classes");
+                    return managedTypes;
+                }));
+            }
+
+            Set<String> managedClassNames = new LinkedHashSet<>();
+            Set<String> managedPackages = new LinkedHashSet<>();
+            for (Future<PersistenceManagedTypes> scan : scans) {
+                PersistenceManagedTypes managedTypes = scan.get();
+                managedClassNames.addAll(managedTypes.getManagedClassNames());
+                managedPackages.addAll(managedTypes.getManagedPackages());
+            }
+            return PersistenceManagedTypes.of(new ArrayList<>(managedClassNames), new ArrayList<>(managedPackages));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedLiquibaseException(e);
+        } catch (ExecutionException e) {
+            throw new UnexpectedLiquibaseException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the packages listed in the URL path, which are scanned including their subpackages.
+     */
+    @Override
+    protected Collection<String> getScannedPackages() {
+        List<String> packageNames = new ArrayList<>();
+        for (String packageName : getHibernateConnection().getPath().split(",")) {
+            if (!packageName.isBlank()) {
+                packageNames.add(packageName.trim());
+            }
+        }
+        return packageNames;
+    }
+
     public PersistenceUnitInfoDescriptor createPersistenceUnitInfoDescriptor(PersistenceUnitInfo info) {
         final List<String> mergedClassesAndPackages = new ArrayList<>(info.getManagedClassNames());
         if (info instanceof SmartPersistenceUnitInfo ) {
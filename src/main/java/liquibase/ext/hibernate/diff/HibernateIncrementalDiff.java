@@ -0,0 +1,147 @@
+package liquibase.ext.hibernate.diff;
+
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.DiffToChangeLog;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.model.HibernateModelHashes;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Sequence;
+import liquibase.structure.core.Table;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares a hibernate model with a database, limited to the tables and sequences that changed in the model since a baseline.
+ * The baseline is a {@link HibernateModelHashes} file kept next to the changelog: tables whose hashes did not change are neither snapshotted
+ * nor compared on either side, so a diff takes time in proportion to the size of the change rather than the size of the model.
+ * <p>
+ * Besides the changed tables, the tables their foreign keys point at and the tables with foreign keys pointing at them are compared,
+ * so a foreign key is always compared together with both of its ends.
+ * Changes made to the database outside of the model are only found for the tables that are compared. Without a baseline the whole model is compared,
+ * and {@link #diffChangeLog(String, CompareControl, DiffOutputControl)} stores a new baseline once the changelog has been written.
+ */
+public class HibernateIncrementalDiff {
+
+    public static final String HASHES_FILE_SUFFIX = ".hibernate-hashes";
+
+    private final HibernateDatabase referenceDatabase;
+    private final Database targetDatabase;
+    private final Path hashesFile;
+    private final HibernateModelHashes hashes;
+
+    public HibernateIncrementalDiff(HibernateDatabase referenceDatabase, Database targetDatabase, Path hashesFile) {
+        this.referenceDatabase = referenceDatabase;
+        this.targetDatabase = targetDatabase;
+        this.hashesFile = hashesFile;
+        this.hashes = HibernateModelHashes.of(referenceDatabase.getRelationalModel());
+    }
+
+    /**
+     * Returns the file the hashes of a changelog are kept in: the changelog path with {@value #HASHES_FILE_SUFFIX} appended.
+     */
+    public static Path getHashesFile(String changeLogFile) {
+        return Paths.get(changeLogFile + HASHES_FILE_SUFFIX);
+    }
+
+    /**
+     * Returns the hashes of the current model.
+     */
+    public HibernateModelHashes getHashes() {
+        return hashes;
+    }
+
+    /**
+     * Compares the tables and sequences that changed since the baseline, or the whole model if there is no baseline yet.
+     */
+    public DiffResult compare(CompareControl compareControl) throws LiquibaseException {
+        HibernateModelHashes baseline;
+        try {
+            baseline = HibernateModelHashes.read(hashesFile);
+        } catch (IOException e) {
+            throw new DatabaseException("Cannot read hibernate model hashes " + hashesFile, e);
+        }
+        if (baseline == null) {
+            Scope.getCurrentScope().getLog(getClass()).info("No hibernate model hashes in " + hashesFile + ", comparing the whole model");
+            return DiffGeneratorFactory.getInstance().compare(referenceDatabase, targetDatabase, compareControl);
+        }
+
+        Set<String> tables = hashes.changedTables(baseline);
+        Set<String> sequences = hashes.changedSequences(baseline);
+        Scope.getCurrentScope().getLog(getClass()).info("Comparing " + tables.size() + " of " + hashes.getTables().size() + " tables and "
+                + sequences.size() + " of " + hashes.getSequences().size() + " sequences changed since " + hashesFile);
+
+        // tables and sequences removed from the model are only looked for in the target, so the diff reports them as unexpected
+        DatabaseSnapshot referenceSnapshot = snapshot(referenceDatabase, tables, sequences, null);
+        DatabaseSnapshot targetSnapshot = snapshot(targetDatabase, tables, sequences, baseline);
+        return DiffGeneratorFactory.getInstance().compare(referenceSnapshot, targetSnapshot, compareControl);
+    }
+
+    /**
+     * Appends the changes found by {@link #compare(CompareControl)} to the changelog, then stores the hashes of the current model as the new baseline.
+     */
+    public void diffChangeLog(String changeLogFile, CompareControl compareControl, DiffOutputControl diffOutputControl) throws LiquibaseException, IOException, ParserConfigurationException {
+        DiffResult diffResult = compare(compareControl);
+        new DiffToChangeLog(diffResult, diffOutputControl).print(changeLogFile);
+        storeBaseline();
+    }
+
+    /**
+     * Stores the hashes of the current model as the baseline for the next comparison.
+     */
+    public void storeBaseline() throws IOException {
+        hashes.write(hashesFile);
+    }
+
+    /**
+     * Snapshots the given tables and sequences of the current model, and those only found in the baseline when one is given.
+     * Tables are looked for in their own catalog and schema, and in the defaults of the database where the model does not name them.
+     * Sequences are always looked for in the default schema.
+     */
+    private DatabaseSnapshot snapshot(Database database, Set<String> tables, Set<String> sequences, HibernateModelHashes baseline) throws LiquibaseException {
+        Schema schema = new Schema(database.getDefaultCatalogName(), database.getDefaultSchemaName());
+        List<DatabaseObject> examples = new ArrayList<>();
+        for (String key : tables) {
+            HibernateModelHashes.TableHash table = hashes.getTables().get(key);
+            if (table == null && baseline != null) {
+                table = baseline.getTables().get(key);
+            }
+            if (table != null) {
+                examples.add(new Table().setName(table.name()).setSchema(new Schema(
+                        table.catalog() == null ? schema.getCatalogName() : table.catalog(),
+                        table.schema() == null ? schema.getName() : table.schema())));
+            }
+        }
+        for (String key : sequences) {
+            HibernateModelHashes.SequenceHash sequence = hashes.getSequences().get(key);
+            if (sequence == null && baseline != null) {
+                sequence = baseline.getSequences().get(key);
+            }
+            if (sequence != null) {
+                examples.add(new Sequence().setName(sequence.name()).setSchema(schema));
+            }
+        }
+        try {
+            return SnapshotGeneratorFactory.getInstance().createSnapshot(examples.toArray(new DatabaseObject[0]), database, new SnapshotControl(database));
+        } catch (InvalidExampleException e) {
+            throw new DatabaseException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package liquibase.ext.hibernate.diff;
+
+import liquibase.Scope;
+import liquibase.change.AddColumnConfig;
+import liquibase.change.Change;
+import liquibase.change.core.AddColumnChange;
+import liquibase.database.Database;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.ChangeGeneratorChain;
+import liquibase.exception.DatabaseException;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Adds all columns missing from a table in a single addColumn change instead of one change per column, so databases that rebuild a table
+ * for each ALTER TABLE, such as MySQL and older Oracle versions, rebuild it once. The combined change lists the columns in the order of the
+ * hibernate table; its rollback drops all of them.
+ * <p>
+ * To find all missing columns of a table, the table is looked up in the comparison database once per diff output control and reference table.
+ * Only the first missing column in table order returns the combined change; the others return nothing.
+ * If the table cannot be looked up, each column gets its own change, and if the change of any column cannot be combined,
+ * the first column returns the changes of all of them.
+ */
+public class MissingColumnChangeGenerator extends liquibase.diff.output.changelog.core.MissingColumnChangeGenerator {
+
+    /**
+     * The comparison tables looked up so far, per diff output control and reference table. The reference tables belong to the snapshots of one diff,
+     * so a control used for another diff gets its own entries; the entries go away with the control.
+     */
+    private final Map<DiffOutputControl, Map<Relation, ComparisonTable>> comparisonTables = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
+        if (Column.class.isAssignableFrom(objectType)) {
+            return PRIORITY_ADDITIONAL;
+        }
+        return PRIORITY_NONE;
+    }
+
+    @Override
+    public Change[] fixMissing(DatabaseObject missingObject, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase, ChangeGeneratorChain chain) {
+        Change[] changes = super.fixMissing(missingObject, control, referenceDatabase, comparisonDatabase, chain);
+        if (!(referenceDatabase instanceof HibernateDatabase || comparisonDatabase instanceof HibernateDatabase)
+                || changes == null || changes.length != 1 || !(changes[0] instanceof AddColumnChange addColumnChange)) {
+            return changes;
+        }
+
+        Column column = (Column) missingObject;
+        List<Column> missingColumns = findMissingColumns(column.getRelation(), control, comparisonDatabase);
+        if (missingColumns == null || missingColumns.stream().noneMatch(missingColumn -> missingColumn.getName().equalsIgnoreCase(column.getName()))) {
+            return changes;
+        }
+        if (!missingColumns.get(0).getName().equalsIgnoreCase(column.getName())) {
+            // added by the change of the first missing column
+            return null;
+        }
+
+        List<Change> allChanges = new ArrayList<>(List.of(changes));
+        List<AddColumnConfig> columns = new ArrayList<>(addColumnChange.getColumns());
+        boolean combinable = true;
+        for (Column missingColumn : missingColumns.subList(1, missingColumns.size())) {
+            Change[] columnChanges = super.fixMissing(missingColumn, control, referenceDatabase, comparisonDatabase, chain);
+            if (columnChanges == null) {
+                continue;
+            }
+            allChanges.addAll(List.of(columnChanges));
+            if (columnChanges.length == 1 && columnChanges[0] instanceof AddColumnChange columnChange) {
+                columns.addAll(columnChange.getColumns());
+            } else {
+                combinable = false;
+            }
+        }
+        if (!combinable) {
+            // the other missing columns return nothing, so their changes are returned here
+            return allChanges.toArray(new Change[0]);
+        }
+        addColumnChange.setColumns(columns);
+        return changes;
+    }
+
+    /**
+     * Returns the columns of the relation, in table order, that the comparison database does not have and that are written to the changelog,
+     * or null if the relation cannot be looked up in the comparison database.
+     */
+    private List<Column> findMissingColumns(Relation relation, DiffOutputControl control, Database comparisonDatabase) {
+        Map<Relation, ComparisonTable> tables = comparisonTables.computeIfAbsent(control, key -> new IdentityHashMap<>());
+        ComparisonTable lookedUp;
+        synchronized (tables) {
+            lookedUp = tables.get(relation);
+            if (lookedUp == null || lookedUp.database() != comparisonDatabase) {
+                lookedUp = new ComparisonTable(comparisonDatabase, lookUp(relation, control, comparisonDatabase));
+                tables.put(relation, lookedUp);
+            }
+        }
+        Table comparisonTable = lookedUp.table();
+        if (comparisonTable == null) {
+            return null;
+        }
+
+        List<Column> missingColumns = new ArrayList<>();
+        for (Column column : relation.getColumns()) {
+            if (comparisonTable.getColumn(column.getName()) == null
+                    && control.shouldOutput(column, comparisonDatabase) && !control.alreadyHandledMissing(column, comparisonDatabase)) {
+                missingColumns.add(column);
+            }
+        }
+        return missingColumns;
+    }
+
+    /**
+     * Snapshots the table with its columns in the comparison database. Returns null if it is not there or cannot be looked up.
+     */
+    private Table lookUp(Relation relation, DiffOutputControl control, Database comparisonDatabase) {
+        Table example = new Table().setName(relation.getName());
+        example.setSchema(findComparisonSchema(relation, control, comparisonDatabase));
+        try {
+            return SnapshotGeneratorFactory.getInstance().createSnapshot(example, comparisonDatabase, new SnapshotControl(comparisonDatabase, Table.class, Column.class));
+        } catch (DatabaseException | InvalidExampleException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot look up " + relation.getName() + ", adding its columns one by one", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the comparison schema the schema comparisons of the control map the schema of the relation to, or the default schema of the comparison database.
+     */
+    private static Schema findComparisonSchema(Relation relation, DiffOutputControl control, Database comparisonDatabase) {
+        String schemaName = relation.getSchema() == null ? null : relation.getSchema().getName();
+        if (schemaName != null && control.getSchemaComparisons() != null) {
+            for (CompareControl.SchemaComparison comparison : control.getSchemaComparisons()) {
+                if (comparison.getReferenceSchema() != null && schemaName.equalsIgnoreCase(comparison.getReferenceSchema().getSchemaName())
+                        && comparison.getComparisonSchema() != null) {
+                    return new Schema(comparison.getComparisonSchema().getCatalogName(), comparison.getComparisonSchema().getSchemaName());
+                }
+            }
+        }
+        return new Schema(comparisonDatabase.getDefaultCatalogName(), comparisonDatabase.getDefaultSchemaName());
+    }
+
+    /**
+     * A table as looked up in a comparison database, or null if it could not be.
+     */
+    private record ComparisonTable(Database database, Table table) {
+    }
+}
@@ -0,0 +1,112 @@
+package liquibase.ext.hibernate.diff;
+
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.change.core.CreateIndexChange;
+import liquibase.database.Database;
+import liquibase.database.OfflineConnection;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.ChangeGeneratorChain;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.sql.visitor.AppendSqlVisitor;
+import liquibase.sql.visitor.RegExpReplaceVisitor;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Index;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * When the {@value HibernateDatabase#ONLINE_INDEXES_PROPERTY} URL property of the hibernate database is true, indexes missing from the target database are created
+ * without blocking writes where the target supports it: {@code CONCURRENTLY} on PostgreSQL, {@code ONLINE} on Oracle and on SQL Server editions
+ * with online index operations, and {@code ALGORITHM=INPLACE LOCK=NONE} on MySQL and MariaDB.
+ * Each such index gets its own changeset, which does not run in a transaction. Other databases, and all databases without the property, get a plain createIndex.
+ */
+public class MissingIndexChangeGenerator extends liquibase.diff.output.changelog.core.MissingIndexChangeGenerator {
+
+    /**
+     * SQL Server engine editions that support online index operations: Enterprise (and Developer), Azure SQL Database and Azure SQL Managed Instance.
+     */
+    private static final Set<Integer> MSSQL_ONLINE_EDITIONS = Set.of(3, 5, 8);
+
+    private final Map<Database, Boolean> mssqlOnlineSupport = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
+        if (Index.class.isAssignableFrom(objectType)) {
+            return PRIORITY_ADDITIONAL;
+        }
+        return PRIORITY_NONE;
+    }
+
+    @Override
+    public Change[] fixMissing(DatabaseObject missingObject, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase, ChangeGeneratorChain chain) {
+        Change[] changes = super.fixMissing(missingObject, control, referenceDatabase, comparisonDatabase, chain);
+        if (!(referenceDatabase instanceof HibernateDatabase hibernateDatabase)
+                || !Boolean.parseBoolean(hibernateDatabase.getProperty(HibernateDatabase.ONLINE_INDEXES_PROPERTY))
+                || changes == null || changes.length != 1 || !(changes[0] instanceof CreateIndexChange createIndexChange)) {
+            return changes;
+        }
+
+        SqlVisitor onlineSqlVisitor = createOnlineSqlVisitor(comparisonDatabase);
+        if (onlineSqlVisitor == null) {
+            return changes;
+        }
+        onlineSqlVisitor.setApplicableDbms(Set.of(comparisonDatabase.getShortName()));
+        return new Change[]{new OnlineCreateIndexChange(createIndexChange, onlineSqlVisitor)};
+    }
+
+    /**
+     * Returns the visitor that turns a CREATE INDEX statement into its online form for the database, or null if the database has none.
+     */
+    protected SqlVisitor createOnlineSqlVisitor(Database database) {
+        if (database instanceof PostgresDatabase) {
+            RegExpReplaceVisitor visitor = new RegExpReplaceVisitor();
+            visitor.setReplace("^(?i)(CREATE (UNIQUE )?INDEX) ");
+            visitor.setWith("$1 CONCURRENTLY ");
+            return visitor;
+        } else if (database instanceof OracleDatabase) {
+            return append(" ONLINE");
+        } else if (database instanceof MSSQLDatabase && supportsOnlineIndexOperations((MSSQLDatabase) database)) {
+            return append(" WITH (ONLINE = ON)");
+        } else if (database instanceof MySQLDatabase) {
+            return append(" ALGORITHM=INPLACE LOCK=NONE");
+        }
+        return null;
+    }
+
+    private static SqlVisitor append(String value) {
+        AppendSqlVisitor visitor = new AppendSqlVisitor();
+        visitor.setValue(value);
+        return visitor;
+    }
+
+    /**
+     * Online index operations depend on the SQL Server edition. Without a live connection to ask, they are assumed to be unavailable.
+     */
+    private boolean supportsOnlineIndexOperations(MSSQLDatabase database) {
+        if (database.getConnection() == null || database.getConnection() instanceof OfflineConnection) {
+            return false;
+        }
+        return mssqlOnlineSupport.computeIfAbsent(database, key -> {
+            try {
+                int edition = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database)
+                        .queryForInt(new RawSqlStatement("SELECT CAST(SERVERPROPERTY('EngineEdition') AS INT)"));
+                return MSSQL_ONLINE_EDITIONS.contains(edition);
+            } catch (DatabaseException e) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Cannot determine the SQL Server edition, creating indexes offline", e);
+                return false;
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package liquibase.ext.hibernate.diff;
+
+import liquibase.change.ChangeMetaData;
+import liquibase.change.DatabaseChange;
+import liquibase.change.core.CreateIndexChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.sql.visitor.SqlVisitor;
+
+/**
+ * A createIndex change that builds the index without blocking writes. It is written to the changelog as a plain createIndex,
+ * and the changeset it is added to gets the {@code modifySql} that turns the statement into its online form for the target database.
+ * That changeset also does not run in a transaction, as PostgreSQL requires for {@code CREATE INDEX CONCURRENTLY}.
+ * Rollback drops the index like any createIndex.
+ * <p>
+ * Only {@link MissingIndexChangeGenerator} creates it; it is not registered with the change factory, so changelogs are parsed as usual.
+ */
+@DatabaseChange(name = "createIndex", description = "Creates an index on an existing column or set of columns without blocking writes",
+        priority = ChangeMetaData.PRIORITY_DEFAULT, appliesTo = "index")
+public class OnlineCreateIndexChange extends CreateIndexChange {
+
+    private final SqlVisitor onlineSqlVisitor;
+
+    public OnlineCreateIndexChange(CreateIndexChange change, SqlVisitor onlineSqlVisitor) {
+        this.onlineSqlVisitor = onlineSqlVisitor;
+        setCatalogName(change.getCatalogName());
+        setSchemaName(change.getSchemaName());
+        setTableName(change.getTableName());
+        setIndexName(change.getIndexName());
+        setUnique(change.isUnique());
+        setTablespace(change.getTablespace());
+        setClustered(change.getClustered());
+        setAssociatedWith(change.getAssociatedWith());
+        setColumns(change.getColumns());
+    }
+
+    public SqlVisitor getOnlineSqlVisitor() {
+        return onlineSqlVisitor;
+    }
+
+    @Override
+    public void setChangeSet(ChangeSet changeSet) {
+        super.setChangeSet(changeSet);
+        if (changeSet != null && !changeSet.getSqlVisitors().contains(onlineSqlVisitor)) {
+            changeSet.setRunInTransaction(false);
+            changeSet.addSqlVisitor(onlineSqlVisitor);
+        }
+    }
+}
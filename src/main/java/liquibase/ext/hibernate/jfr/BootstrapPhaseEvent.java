@@ -0,0 +1,25 @@
+package liquibase.ext.hibernate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one phase of reading a hibernate configuration, such as {@code configureSources} or {@code build}.
+ */
+@Name("liquibase.hibernate.BootstrapPhase")
+@Label("Hibernate Bootstrap Phase")
+@Description("A phase of bootstrapping hibernate and extracting its relational model")
+@Category({"Liquibase", "Hibernate"})
+@StackTrace(false)
+public class BootstrapPhaseEvent extends Event {
+
+    @Label("URL")
+    public String url;
+
+    @Label("Phase")
+    public String phase;
+}
@@ -0,0 +1,100 @@
+package liquibase.ext.hibernate.jfr;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulates the time spent per bootstrap phase and per snapshot generator call of one hibernate database,
+ * so a compact summary can be logged at the end of a run. The same work is recorded in more detail as Flight Recorder events.
+ */
+public class HibernateTimings {
+
+    private final Map<String, Section> sections = new LinkedHashMap<>();
+
+    /**
+     * Adds one call of the given duration to a section. Sections are reported in the order they were first recorded.
+     */
+    public synchronized void record(String section, long nanos) {
+        Section timing = sections.computeIfAbsent(section, Section::new);
+        timing.calls++;
+        timing.nanos += nanos;
+    }
+
+    public synchronized boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    /**
+     * Returns the sections recorded so far.
+     */
+    public synchronized List<Section> getSections() {
+        List<Section> copy = new ArrayList<>(sections.size());
+        for (Section section : sections.values()) {
+            copy.add(section.copy());
+        }
+        return copy;
+    }
+
+    public synchronized void clear() {
+        sections.clear();
+    }
+
+    /**
+     * Returns a table with one line per section: the number of calls, the total and the mean time.
+     */
+    public String toSummaryTable() {
+        List<Section> sections = getSections();
+        int width = "section".length();
+        for (Section section : sections) {
+            width = Math.max(width, section.getName().length());
+        }
+
+        StringBuilder table = new StringBuilder();
+        String format = "%-" + width + "s %10s %12s %12s%n";
+        table.append(String.format(Locale.ROOT, format, "section", "calls", "total ms", "mean us"));
+        for (Section section : sections) {
+            table.append(String.format(Locale.ROOT, format,
+                    section.getName(),
+                    section.getCalls(),
+                    TimeUnit.NANOSECONDS.toMillis(section.getNanos()),
+                    TimeUnit.NANOSECONDS.toMicros(section.getNanos() / Math.max(section.getCalls(), 1))));
+        }
+        return table.toString();
+    }
+
+    /**
+     * The calls recorded for one bootstrap phase or generator operation.
+     */
+    public static final class Section {
+        private final String name;
+        private long calls;
+        private long nanos;
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        private Section copy() {
+            Section copy = new Section(name);
+            copy.calls = calls;
+            copy.nanos = nanos;
+            return copy;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
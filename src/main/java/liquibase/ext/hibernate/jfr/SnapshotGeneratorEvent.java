@@ -0,0 +1,35 @@
+package liquibase.ext.hibernate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one {@code snapshotObject} or {@code addTo} call of a hibernate snapshot generator.
+ * {@link #table} is the table the object is or belongs to, so the work done per table can be grouped.
+ */
+@Name("liquibase.hibernate.SnapshotGenerator")
+@Label("Hibernate Snapshot Generator")
+@Description("A snapshotObject or addTo call of a hibernate snapshot generator")
+@Category({"Liquibase", "Hibernate"})
+@StackTrace(false)
+public class SnapshotGeneratorEvent extends Event {
+
+    @Label("Generator")
+    public String generator;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Object Type")
+    public String objectType;
+
+    @Label("Object Name")
+    public String objectName;
+
+    @Label("Table")
+    public String table;
+}
@@ -0,0 +1,384 @@
+package liquibase.ext.hibernate.model;
+
+import liquibase.Scope;
+import org.hibernate.Version;
+import org.hibernate.boot.Metadata;
+import org.hibernate.mapping.Component;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
+import org.hibernate.mapping.RootClass;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk cache of {@link HibernateRelationalModel}s, enabled with the {@value #METADATA_CACHE_PROPERTY} URL property pointing to a directory.
+ * <p>
+ * Each cache file stores the model together with the dialect it was extracted for and a fingerprint of its inputs:
+ * the connection configuration, the Hibernate version, the bytecode of the mapped classes (including their superclasses and embeddables),
+ * the contents of the packages those classes live in, everything below the packages and class path locations that are scanned for entities,
+ * and the configuration and mapping resources such as the URL path, {@code META-INF/persistence.xml} or the hbm.xml files it names.
+ * On the next run the fingerprint is recomputed from the recorded names. If nothing changed the model is served from
+ * the file and Hibernate is not bootstrapped at all.
+ */
+public class HibernateModelCache {
+
+    public static final String METADATA_CACHE_PROPERTY = "metadataCache";
+
+    private static final int MAGIC = 0x4C42484D;
+    private static final int FORMAT_VERSION = 2;
+    private static final String[] CONFIGURATION_RESOURCES = {"META-INF/persistence.xml", "META-INF/orm.xml"};
+
+    private final Path file;
+    private final String configurationKey;
+    private final ClassLoader classLoader;
+
+    /**
+     * @param directory        directory holding the cache files
+     * @param configurationKey everything about the connection that affects the model, such as the URL path and its properties
+     * @param classLoader      the class loader the mapped classes and resources are read from
+     */
+    public HibernateModelCache(Path directory, String configurationKey, ClassLoader classLoader) {
+        this.file = directory.resolve("liquibase-hibernate-" + sha256(configurationKey).substring(0, 16) + ".model");
+        this.configurationKey = configurationKey;
+        this.classLoader = classLoader;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the cached model, or null if there is no cache file, it cannot be read, or its fingerprint no longer matches.
+     */
+    public CachedModel load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String storedFingerprint = in.readUTF();
+            List<String> classNames = readNames(in);
+            List<String> resourceNames = readNames(in);
+            List<String> scannedPackages = readNames(in);
+            List<String> scannedLocations = readNames(in);
+            if (!storedFingerprint.equals(fingerprint(classNames, resourceNames, scannedPackages, scannedLocations))) {
+                Scope.getCurrentScope().getLog(getClass()).info("Hibernate model cache " + file + " is out of date");
+                return null;
+            }
+            String dialectName = in.readUTF();
+            return new CachedModel(HibernateModelSerializer.read(in), dialectName.isEmpty() ? null : dialectName);
+        } catch (IOException | RuntimeException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot read hibernate model cache " + file + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the model to the cache, fingerprinting the classes mapped in the given metadata along with the given inputs.
+     * Failures are logged and otherwise ignored: the cache is an optimization only.
+     *
+     * @param resourceNames    configuration and mapping resources, as class path resource names or URLs
+     * @param scannedPackages  packages scanned for entities, which are fingerprinted including their subpackages
+     * @param scannedLocations URLs of class path roots or jars scanned for entities, which are fingerprinted as a whole
+     */
+    public void store(HibernateRelationalModel model, String dialectName, Metadata metadata, Collection<String> resourceNames,
+                      Collection<String> scannedPackages, Collection<String> scannedLocations) {
+        List<String> classNames = collectMappedClassNames(metadata);
+        TreeSet<String> resources = new TreeSet<>(resourceNames);
+        Collections.addAll(resources, CONFIGURATION_RESOURCES);
+        List<String> allResourceNames = new ArrayList<>(resources);
+        List<String> packageNames = new ArrayList<>(new TreeSet<>(scannedPackages));
+        List<String> locations = new ArrayList<>(new TreeSet<>(scannedLocations));
+
+        Path tempFile = null;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(fingerprint(classNames, allResourceNames, packageNames, locations));
+                writeNames(classNames, out);
+                writeNames(allResourceNames, out);
+                writeNames(packageNames, out);
+                writeNames(locations, out);
+                out.writeUTF(dialectName == null ? "" : dialectName);
+                HibernateModelSerializer.write(model, out);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Scope.getCurrentScope().getLog(getClass()).info("Wrote hibernate model cache " + file);
+        } catch (IOException | RuntimeException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot write hibernate model cache " + file + ": " + e.getMessage(), e);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignore) {
+                    // left behind for the next run to overwrite
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the given classes, resources and scanned packages and locations as seen through this cache's class loader.
+     */
+    protected String fingerprint(List<String> classNames, List<String> resourceNames, List<String> scannedPackages, List<String> scannedLocations) throws IOException {
+        MessageDigest digest = newDigest();
+        update(digest, configurationKey);
+        update(digest, Version.getVersionString());
+
+        TreeSet<String> packageNames = new TreeSet<>();
+        for (String className : new TreeSet<>(classNames)) {
+            update(digest, className);
+            update(digest, readResource(className.replace('.', '/') + ".class"));
+            int lastDot = className.lastIndexOf('.');
+            if (lastDot > 0) {
+                packageNames.add(className.substring(0, lastDot));
+            }
+        }
+
+        // A new or removed class in a mapped package may change what package scanning finds
+        for (String packageName : packageNames) {
+            update(digest, packageName);
+            for (URL url : Collections.list(classLoader.getResources(packageName.replace('.', '/')))) {
+                updateWithLocation(digest, url, false);
+            }
+        }
+
+        // Scanning also finds entities in subpackages, so everything below the scanned packages and locations counts
+        for (String packageName : new TreeSet<>(scannedPackages)) {
+            update(digest, packageName);
+            for (URL url : Collections.list(classLoader.getResources(packageName.replace('.', '/')))) {
+                updateWithLocation(digest, url, true);
+            }
+        }
+        for (String location : new TreeSet<>(scannedLocations)) {
+            updateWithLocation(digest, toUrl(location), true);
+        }
+
+        for (String resourceName : new TreeSet<>(resourceNames)) {
+            update(digest, resourceName);
+            for (URL url : findResources(resourceName)) {
+                update(digest, url.toString());
+                try (InputStream in = url.openStream()) {
+                    update(digest, in.readAllBytes());
+                }
+            }
+        }
+
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Adds the .class and .xml files in the given directory or jar location to the digest, and those of all its subdirectories if {@code recursive} is set.
+     * Files are hashed by content, jar entries by their CRC.
+     */
+    private void updateWithLocation(MessageDigest digest, URL url, boolean recursive) throws IOException {
+        update(digest, url.toString());
+        try {
+            if ("file".equals(url.getProtocol())) {
+                Path directory = Paths.get(url.toURI());
+                if (Files.isRegularFile(directory)) {
+                    updateWithLocation(digest, toUrl("jar:" + url + "!/"), recursive);
+                } else if (Files.isDirectory(directory)) {
+                    List<Path> files;
+                    try (Stream<Path> stream = recursive ? Files.walk(directory) : Files.list(directory)) {
+                        files = stream.filter(Files::isRegularFile)
+                                .filter(path -> isMappingFile(path.getFileName().toString()))
+                                .sorted()
+                                .toList();
+                    }
+                    for (Path path : files) {
+                        update(digest, directory.relativize(path).toString().replace(File.separatorChar, '/'));
+                        update(digest, Files.readAllBytes(path));
+                    }
+                }
+            } else if ("jar".equals(url.getProtocol())) {
+                URLConnection connection = url.openConnection();
+                if (connection instanceof JarURLConnection jarConnection) {
+                    jarConnection.setUseCaches(false);
+                    String prefix = jarConnection.getEntryName() == null ? "" : jarConnection.getEntryName().replaceAll("/?$", "/");
+                    try (JarFile jarFile = jarConnection.getJarFile()) {
+                        TreeMap<String, Long> entries = new TreeMap<>();
+                        for (JarEntry entry : Collections.list(jarFile.entries())) {
+                            String name = entry.getName();
+                            if (!entry.isDirectory() && name.startsWith(prefix) && isMappingFile(name)
+                                    && (recursive || name.indexOf('/', prefix.length()) < 0)) {
+                                entries.put(name, entry.getCrc());
+                            }
+                        }
+                        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                            update(digest, entry.getKey());
+                            update(digest, Long.toString(entry.getValue()));
+                        }
+                    }
+                }
+            }
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static boolean isMappingFile(String name) {
+        return name.endsWith(".class") || name.endsWith(".xml");
+    }
+
+    /**
+     * Returns the URLs of a resource given either as a URL or as a class path resource name.
+     */
+    private List<URL> findResources(String name) throws IOException {
+        if (name.indexOf(':') > 1) {
+            try {
+                return List.of(toUrl(name));
+            } catch (IOException | IllegalArgumentException ignore) {
+                // not a URL, look it up on the class path
+            }
+        }
+        return Collections.list(classLoader.getResources(name));
+    }
+
+    private static URL toUrl(String location) throws IOException {
+        try {
+            return new URI(location).toURL();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private byte[] readResource(String name) throws IOException {
+        try (InputStream in = classLoader.getResourceAsStream(name)) {
+            return in == null ? new byte[0] : in.readAllBytes();
+        }
+    }
+
+    /**
+     * Returns the names of the classes whose bytecode can affect the model: mapped entities, their superclasses and their embeddables.
+     */
+    protected List<String> collectMappedClassNames(Metadata metadata) {
+        TreeSet<String> classNames = new TreeSet<>();
+        for (PersistentClass persistentClass : metadata.getEntityBindings()) {
+            String className = persistentClass.getClassName();
+            if (className != null) {
+                addClassHierarchy(className, classNames);
+            }
+            if (persistentClass instanceof RootClass rootClass && rootClass.getIdentifier() instanceof Component component) {
+                addComponent(component, classNames);
+            }
+            for (Property property : persistentClass.getPropertyClosure()) {
+                if (property.getValue() instanceof Component component) {
+                    addComponent(component, classNames);
+                }
+            }
+        }
+        return new ArrayList<>(classNames);
+    }
+
+    private void addComponent(Component component, TreeSet<String> classNames) {
+        String className = component.getComponentClassName();
+        if (className != null && !classNames.contains(className)) {
+            addClassHierarchy(className, classNames);
+        }
+        for (Property property : component.getProperties()) {
+            if (property.getValue() instanceof Component nested) {
+                addComponent(nested, classNames);
+            }
+        }
+    }
+
+    private void addClassHierarchy(String className, TreeSet<String> classNames) {
+        try {
+            Class<?> type = Class.forName(className, false, classLoader);
+            while (type != null && type != Object.class && !type.getName().startsWith("java.")) {
+                classNames.add(type.getName());
+                type = type.getSuperclass();
+            }
+        } catch (ClassNotFoundException | LinkageError e) {
+            classNames.add(className);
+        }
+    }
+
+    private static void writeNames(List<String> names, DataOutputStream out) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static List<String> readNames(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        update(digest, value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(MessageDigest digest, byte[] value) {
+        digest.update(Integer.toString(value.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(value);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String sha256(String value) {
+        MessageDigest digest = newDigest();
+        return toHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * A model read from the cache, with the class name of the dialect it was extracted for.
+     */
+    public record CachedModel(HibernateRelationalModel model, String dialectName) {
+    }
+}
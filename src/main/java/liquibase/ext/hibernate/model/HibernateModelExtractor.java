@@ -0,0 +1,439 @@
+package liquibase.ext.hibernate.model;
+
+import liquibase.Scope;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.boot.model.relational.internal.SqlStringGenerationContextImpl;
+import org.hibernate.boot.spi.MetadataImplementor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.id.NativeGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.mapping.GeneratorSettings;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.RootClass;
+import org.hibernate.mapping.Selectable;
+import org.hibernate.mapping.SimpleValue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a {@link HibernateRelationalModel} from the Hibernate metadata of a {@link HibernateDatabase}.
+ * All traversal of Hibernate mapping objects happens here, once per database, so the snapshot generators never have to.
+ */
+public class HibernateModelExtractor {
+
+    private static final String HIBERNATE_ORDER_ASC = "asc";
+    private static final String HIBERNATE_ORDER_DESC = "desc";
+
+    // Hibernate internals are looked up once per class loader rather than for every primary key column and entity
+    private static final MethodHandle GET_MEMBER_DETAILS = findGetMemberDetails();
+    private static final MethodHandle NATIVE_GENERATOR_DELEGATE = findNativeGeneratorDelegate();
+    private static final ClassValue<MethodHandle> HAS_DIRECT_ANNOTATION_USAGE = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return MethodHandles.publicLookup().unreflect(type.getMethod("hasDirectAnnotationUsage", Class.class))
+                        .asType(MethodType.methodType(boolean.class, Object.class, Class.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    };
+
+    private final HibernateDatabase database;
+    private final MetadataImplementor metadata;
+    private final Dialect dialect;
+    private final Map<SimpleValue, IdentifierGeneration> generations = new IdentityHashMap<>();
+
+    public HibernateModelExtractor(HibernateDatabase database) {
+        this.database = database;
+        this.metadata = (MetadataImplementor) database.getMetadata();
+        this.dialect = database.getDialect();
+    }
+
+    public HibernateRelationalModel extract() {
+        Map<org.hibernate.mapping.Table, PersistentClass> entitiesByTable = new HashMap<>();
+        for (PersistentClass entityBinding : metadata.getEntityBindings()) {
+            entitiesByTable.putIfAbsent(entityBinding.getTable(), entityBinding);
+        }
+
+        List<HibernateRelationalModel.Table> tables = new ArrayList<>();
+        List<HibernateRelationalModel.Sequence> sequences = new ArrayList<>();
+        Set<String> addedSequences = new HashSet<>();
+        // Hibernate 7: GenerationType.TABLE tables are not visible via getEntityBindings(),
+        // so we retrieve tables from namespaces instead.
+        for (Namespace namespace : metadata.getDatabase().getNamespaces()) {
+            for (org.hibernate.mapping.Table hibernateTable : namespace.getTables()) {
+                if (hibernateTable.getName() != null) {
+                    tables.add(extractTable(hibernateTable, entitiesByTable.get(hibernateTable)));
+                }
+            }
+            for (org.hibernate.boot.model.relational.Sequence sequence : namespace.getSequences()) {
+                String name = sequence.getName().getSequenceName().getText();
+                sequences.add(new HibernateRelationalModel.Sequence(name, sequence.getInitialValue(), sequence.getIncrementSize()));
+                addedSequences.add(name.toLowerCase());
+            }
+        }
+        // Sequences managed by @NativeGenerator are not registered in the namespaces
+        addNativeGeneratorSequences(sequences, addedSequences);
+
+        return new HibernateRelationalModel(tables, sequences);
+    }
+
+    private HibernateRelationalModel.Table extractTable(org.hibernate.mapping.Table hibernateTable, PersistentClass persistentClass) {
+        List<String> primaryKeyColumns = null;
+        Set<String> primaryKeyColumnNames = new HashSet<>();
+        org.hibernate.mapping.PrimaryKey hibernatePrimaryKey = hibernateTable.getPrimaryKey();
+        if (hibernatePrimaryKey != null) {
+            primaryKeyColumns = new ArrayList<>();
+            for (org.hibernate.mapping.Column pkColumn : hibernatePrimaryKey.getColumns()) {
+                primaryKeyColumns.add(pkColumn.getName());
+                primaryKeyColumnNames.add(pkColumn.getName().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<HibernateRelationalModel.Column> columns = new ArrayList<>();
+        for (org.hibernate.mapping.Column hibernateColumn : hibernateTable.getColumns()) {
+            boolean primaryKey = primaryKeyColumnNames.contains(hibernateColumn.getName().toLowerCase(Locale.ROOT));
+            columns.add(extractColumn(hibernateTable, hibernateColumn, primaryKey, persistentClass));
+        }
+
+        List<HibernateRelationalModel.ForeignKey> foreignKeys = new ArrayList<>();
+        for (org.hibernate.mapping.ForeignKey hibernateForeignKey : hibernateTable.getForeignKeyCollection()) {
+            if (hibernateForeignKey.isCreationEnabled() && hibernateForeignKey.isPhysicalConstraint()) {
+                foreignKeys.add(extractForeignKey(hibernateForeignKey));
+            }
+        }
+
+        List<HibernateRelationalModel.Index> indexes = new ArrayList<>();
+        for (org.hibernate.mapping.Index hibernateIndex : hibernateTable.getIndexes().values()) {
+            indexes.add(extractIndex(hibernateIndex));
+        }
+
+        List<HibernateRelationalModel.UniqueKey> uniqueKeys = new ArrayList<>();
+        for (org.hibernate.mapping.UniqueKey hibernateUnique : hibernateTable.getUniqueKeys().values()) {
+            List<String> uniqueColumns = new ArrayList<>();
+            for (org.hibernate.mapping.Column hibernateColumn : hibernateUnique.getColumns()) {
+                uniqueColumns.add(hibernateColumn.getName());
+            }
+            uniqueKeys.add(new HibernateRelationalModel.UniqueKey(hibernateUnique.getName(), uniqueColumns));
+        }
+
+        return new HibernateRelationalModel.Table(
+                hibernateTable.getCatalog(),
+                hibernateTable.getSchema(),
+                hibernateTable.getName(),
+                hibernateTable.getComment(),
+                hibernateTable.isPhysicalTable(),
+                columns,
+                primaryKeyColumns,
+                foreignKeys,
+                indexes,
+                uniqueKeys);
+    }
+
+    private HibernateRelationalModel.Column extractColumn(org.hibernate.mapping.Table hibernateTable, org.hibernate.mapping.Column hibernateColumn,
+                                                          boolean primaryKey, PersistentClass persistentClass) {
+        boolean autoIncrement = false;
+        String defaultSequenceName = null;
+        String valueTypeName = null;
+
+        SimpleValue simpleValue = hibernateColumn.getValue() instanceof SimpleValue value ? value : null;
+        if (simpleValue != null) {
+            valueTypeName = simpleValue.getTypeName();
+        }
+
+        // PRIMARY KEY & AUTO-INCREMENT LOGIC (HIBERNATE 7)
+        if (primaryKey && simpleValue != null && persistentClass != null) {
+            IdentifierGeneration generation = classify(simpleValue, persistentClass.getRootClass());
+            autoIncrement = generation.autoIncrement();
+
+            // On PostgreSQL a sequence-backed id is a column defaulting to nextval() rather than an auto-increment column.
+            if (generation.sequenceBacked() && PostgreSQLDialect.class.isAssignableFrom(dialect.getClass())) {
+                defaultSequenceName = generation.sequenceName() != null
+                        ? generation.sequenceName()
+                        : (hibernateTable.getName() + "_" + hibernateColumn.getName() + "_seq").toLowerCase();
+                autoIncrement = false;
+            }
+            autoIncrement = autoIncrement && database.supportsAutoIncrement();
+        }
+
+        return new HibernateRelationalModel.Column(
+                hibernateColumn.getName(),
+                hibernateColumn.getSqlType(metadata),
+                hibernateColumn.getSqlTypeCode(),
+                hibernateColumn.getDefaultValue(),
+                simpleValue != null,
+                valueTypeName,
+                hibernateColumn.getComment(),
+                hibernateColumn.isNullable(),
+                hibernateColumn.isUnique(),
+                primaryKey,
+                autoIncrement,
+                defaultSequenceName);
+    }
+
+    private HibernateRelationalModel.ForeignKey extractForeignKey(org.hibernate.mapping.ForeignKey hibernateForeignKey) {
+        org.hibernate.mapping.Table hibernateReferencedTable = hibernateForeignKey.getReferencedTable();
+
+        List<String> columns = new ArrayList<>();
+        for (org.hibernate.mapping.Column column : hibernateForeignKey.getColumns()) {
+            columns.add(column.getName());
+        }
+        List<String> referencedColumns = new ArrayList<>();
+        for (org.hibernate.mapping.Column column : hibernateForeignKey.getReferencedColumns()) {
+            referencedColumns.add(column.getName());
+        }
+        if (referencedColumns.isEmpty() && hibernateReferencedTable.getPrimaryKey() != null) {
+            for (org.hibernate.mapping.Column column : hibernateReferencedTable.getPrimaryKey().getColumns()) {
+                referencedColumns.add(column.getName());
+            }
+        }
+
+        return new HibernateRelationalModel.ForeignKey(
+                hibernateForeignKey.getName(),
+                hibernateReferencedTable.getCatalog(),
+                hibernateReferencedTable.getSchema(),
+                hibernateReferencedTable.getName(),
+                columns,
+                referencedColumns);
+    }
+
+    private HibernateRelationalModel.Index extractIndex(org.hibernate.mapping.Index hibernateIndex) {
+        List<HibernateRelationalModel.IndexColumn> columns = new ArrayList<>();
+        for (Selectable selectable : hibernateIndex.getSelectables()) {
+            if (!(selectable instanceof org.hibernate.mapping.Column hibernateColumn)) {
+                continue;
+            }
+            String hibernateOrder = hibernateIndex.getSelectableOrderMap().get(hibernateColumn);
+            Boolean descending = HIBERNATE_ORDER_ASC.equals(hibernateOrder)
+                ? Boolean.FALSE
+                : (HIBERNATE_ORDER_DESC.equals(hibernateOrder) ? Boolean.TRUE : null);
+            columns.add(new HibernateRelationalModel.IndexColumn(hibernateColumn.getName(), descending));
+        }
+        return new HibernateRelationalModel.Index(hibernateIndex.getName(), isUniqueIndex(hibernateIndex), columns);
+    }
+
+    private Boolean isUniqueIndex(org.hibernate.mapping.Index hibernateIndex) {
+        /*
+        This seems to be necessary to explicitly tell liquibase that there's no
+        actual diff in certain non-unique indexes
+        */
+        if (hibernateIndex.getColumnSpan() == 1) {
+            var col = ((org.hibernate.mapping.Column) hibernateIndex.getSelectables().get(0));
+            return col.isUnique();
+        } else {
+            /*
+            It seems that because Hibernate does not implement the unique property of the Jpa composite index,
+            the diff command appears 'difference', because the unique property of the entity index is 'null',
+            and the value read from the database is 'false', resulting in the generated changeSet after the Drop and
+            Recreate Index.
+            */
+            return false;
+        }
+    }
+
+    /**
+     * Adds the sequences behind the identifier generators of the root entities, reusing their classification.
+     */
+    private void addNativeGeneratorSequences(List<HibernateRelationalModel.Sequence> sequences, Set<String> addedSequences) {
+        for (PersistentClass entityBinding : metadata.getEntityBindings()) {
+            if (!(entityBinding instanceof RootClass rootClass)) {
+                continue;
+            }
+            var identifier = rootClass.getIdentifier();
+            if (!(identifier instanceof SimpleValue simpleValue)) {
+                continue;
+            }
+
+            try {
+                IdentifierGeneration generation = classify(simpleValue, rootClass);
+                String name = generation.sequenceName();
+                if (name != null && !addedSequences.contains(name.toLowerCase())) {
+                    sequences.add(new HibernateRelationalModel.Sequence(name, generation.initialValue(), generation.incrementSize()));
+                    addedSequences.add(name.toLowerCase());
+                }
+            } catch (Exception e) {
+                Scope.getCurrentScope().getLog(getClass()).fine(
+                        "Could not resolve generator for " + rootClass.getEntityName(), e);
+            }
+        }
+    }
+
+    /**
+     * Classifies the identifier generator of a value, instantiating it only the first time the value is seen.
+     * Primary key columns of a root table and the sequence scan share the root entity's identifier value, so each root entity's generator is created once.
+     */
+    private IdentifierGeneration classify(SimpleValue simpleValue, RootClass rootClass) {
+        IdentifierGeneration generation = generations.get(simpleValue);
+        if (generation == null) {
+            generation = createClassification(simpleValue, rootClass);
+            generations.put(simpleValue, generation);
+        }
+        return generation;
+    }
+
+    private IdentifierGeneration createClassification(SimpleValue simpleValue, RootClass rootClass) {
+        var memberDetails = getMemberDetails(simpleValue);
+
+        // Detection of Generation Intent:
+        // For annotation-based entities, if @GeneratedValue is absent the ID
+        // is application-assigned and no generator should be created.
+        // For XML-mapped entities (memberDetails is null), we always process
+        // the generator since the intent is declared in the hbm.xml mapping.
+        if (memberDetails != null && !hasAnnotation(memberDetails, jakarta.persistence.GeneratedValue.class)) {
+            return IdentifierGeneration.NONE;
+        }
+
+        var generatorSettings = createGeneratorSettings(simpleValue);
+        var generator = simpleValue.createGenerator(dialect, rootClass, rootClass.getIdentifierProperty(), generatorSettings);
+        if (generator == null) {
+            return IdentifierGeneration.NONE;
+        }
+
+        boolean autoIncrement = false;
+        SequenceStyleGenerator sequenceGenerator = null;
+
+        // Resolution of the GenerationType Strategy:
+        // IDENTITY maps to a database-native "auto-increment" column.
+        // SEQUENCE and TABLE indicate separate generator objects and should NOT
+        // be marked as auto-increment in Liquibase metadata.
+        // TABLE strategy is a pre-insert generator, not a database identity column.
+        if (generator instanceof org.hibernate.id.IdentityGenerator) {
+            autoIncrement = true;
+        } else if (generator instanceof SequenceStyleGenerator seqGen) {
+            sequenceGenerator = seqGen;
+            autoIncrement = true;
+        } else if (generator instanceof NativeGenerator nativeGen) {
+            // NativeGenerator might wrap a SequenceStyleGenerator delegate depending on the dialect.
+            if (getNativeGeneratorDelegate(nativeGen) instanceof SequenceStyleGenerator seqGen) {
+                sequenceGenerator = seqGen;
+            }
+            autoIncrement = switch (nativeGen.getGenerationType()) {
+                case IDENTITY, SEQUENCE -> true;
+                default -> false;
+            };
+        }
+
+        if (sequenceGenerator == null) {
+            return new IdentifierGeneration(autoIncrement, false, null, 0, 0);
+        }
+        var structure = sequenceGenerator.getDatabaseStructure();
+        if (structure == null || structure.getPhysicalName() == null) {
+            return new IdentifierGeneration(autoIncrement, true, null, 0, 0);
+        }
+        return new IdentifierGeneration(autoIncrement, true, structure.getPhysicalName().render(), structure.getInitialValue(), structure.getIncrementSize());
+    }
+
+    private org.hibernate.generator.Generator getNativeGeneratorDelegate(NativeGenerator nativeGen) {
+        if (NATIVE_GENERATOR_DELEGATE == null) {
+            return null;
+        }
+        try {
+            return (org.hibernate.generator.Generator) NATIVE_GENERATOR_DELEGATE.invoke(nativeGen);
+        } catch (Throwable e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Could not access NativeGenerator delegate", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns member details, or null on Hibernate < 7.3 where SimpleValue.getMemberDetails() does not exist.
+     */
+    private Object getMemberDetails(SimpleValue simpleValue) {
+        if (GET_MEMBER_DETAILS == null) {
+            return null;
+        }
+        try {
+            return GET_MEMBER_DETAILS.invoke(simpleValue);
+        } catch (Throwable e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Could not get member details", e);
+            return null;
+        }
+    }
+
+    /**
+     * Checks for an annotation on member details, for compatibility
+     * with Hibernate < 7.3 where MemberDetails may not be available.
+     */
+    private boolean hasAnnotation(Object memberDetails, Class<? extends java.lang.annotation.Annotation> annotationType) {
+        MethodHandle hasDirectAnnotationUsage = HAS_DIRECT_ANNOTATION_USAGE.get(memberDetails.getClass());
+        if (hasDirectAnnotationUsage == null) {
+            return true; // assume yes when we can't determine
+        }
+        try {
+            return (boolean) hasDirectAnnotationUsage.invoke(memberDetails, annotationType);
+        } catch (Throwable e) {
+            return true;
+        }
+    }
+
+    /**
+     * Resolves SimpleValue.getMemberDetails() once. Returns null when this Hibernate version does not have it.
+     */
+    private static MethodHandle findGetMemberDetails() {
+        try {
+            return MethodHandles.publicLookup().unreflect(SimpleValue.class.getMethod("getMemberDetails"))
+                    .asType(MethodType.methodType(Object.class, SimpleValue.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the private NativeGenerator.dialectNativeGenerator field once. Returns null when it does not exist or cannot be opened.
+     */
+    private static MethodHandle findNativeGeneratorDelegate() {
+        try {
+            Field field = NativeGenerator.class.getDeclaredField("dialectNativeGenerator");
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, NativeGenerator.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private GeneratorSettings createGeneratorSettings(SimpleValue simpleValue) {
+        var buildingContext = simpleValue.getBuildingContext();
+        return new GeneratorSettings() {
+            @Override
+            public String getDefaultCatalog() {
+                return null;
+            }
+
+            @Override
+            public String getDefaultSchema() {
+                return null;
+            }
+
+            @Override
+            public SqlStringGenerationContext getSqlStringGenerationContext() {
+                var db = buildingContext.getMetadataCollector().getDatabase();
+                return SqlStringGenerationContextImpl.fromExplicit(
+                        db.getJdbcEnvironment(), db, getDefaultCatalog(), getDefaultSchema());
+            }
+        };
+    }
+
+    /**
+     * How an identifier value is generated. {@code sequenceBacked} is true when the generator draws from a sequence;
+     * {@code sequenceName} is its physical name when Hibernate knows it, with its initial value and increment.
+     */
+    private record IdentifierGeneration(boolean autoIncrement, boolean sequenceBacked, String sequenceName, long initialValue, long incrementSize) {
+        static final IdentifierGeneration NONE = new IdentifierGeneration(false, false, null, 0, 0);
+    }
+}
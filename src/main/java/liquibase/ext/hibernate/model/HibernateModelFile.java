@@ -0,0 +1,85 @@
+package liquibase.ext.hibernate.model;
+
+import org.hibernate.Version;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exported {@link HibernateRelationalModel}s, written with the {@value #EXPORT_MODEL_PROPERTY} URL property and read by
+ * {@link liquibase.ext.hibernate.database.HibernateSnapshotDatabase} through {@code hibernate:snapshot:<file>} URLs.
+ * <p>
+ * Unlike the {@link HibernateModelCache} the file carries no fingerprint: it is a build artifact describing the model at the time it was exported,
+ * so two versions of a model can be compared without bootstrapping hibernate for either of them.
+ */
+public final class HibernateModelFile {
+
+    public static final String EXPORT_MODEL_PROPERTY = "exportModel";
+
+    private static final int MAGIC = 0x4C424845;
+    private static final int FORMAT_VERSION = 1;
+    private static final String FORMAT_NAME = "liquibase-hibernate-model";
+
+    private HibernateModelFile() {
+    }
+
+    /**
+     * Writes the model and the class name of the dialect it was extracted for. The file is replaced atomically.
+     */
+    public static void write(HibernateRelationalModel model, String dialectName, Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(FORMAT_NAME);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(Version.getVersionString());
+                out.writeUTF(dialectName == null ? "" : dialectName);
+                HibernateModelSerializer.write(model, out);
+            }
+            Files.move(tempFile, file.toAbsolutePath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public static ExportedModel read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a model written by {@link #write(HibernateRelationalModel, String, Path)}. The stream is not closed.
+     */
+    public static ExportedModel read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+        if (in.readInt() != MAGIC || !FORMAT_NAME.equals(in.readUTF())) {
+            throw new IOException("Not an exported hibernate model");
+        }
+        int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported hibernate model format version " + formatVersion + ", expected " + FORMAT_VERSION);
+        }
+        String hibernateVersion = in.readUTF();
+        String dialectName = in.readUTF();
+        return new ExportedModel(HibernateModelSerializer.read(in), dialectName.isEmpty() ? null : dialectName, hibernateVersion);
+    }
+
+    /**
+     * A model read from an exported file, with the class name of the dialect it was extracted for and the hibernate version that extracted it.
+     */
+    public record ExportedModel(HibernateRelationalModel model, String dialectName, String hibernateVersion) {
+    }
+}
@@ -0,0 +1,253 @@
+package liquibase.ext.hibernate.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Content hashes of the physical tables and the sequences of a {@link HibernateRelationalModel}, used to find what changed between two versions of a model.
+ * Each table has a hash of everything the model says about it and a separate hash of its foreign keys, so the tables on the other end of a changed
+ * foreign key can be found as well. The hashes are stored as a sorted text file, so they can be kept under version control next to a changelog.
+ */
+public final class HibernateModelHashes {
+
+    private static final String HEADER = "# liquibase-hibernate model hashes, format 1";
+    private static final String TABLE = "table";
+    private static final String SEQUENCE = "sequence";
+    private static final String NONE = "-";
+
+    private final Map<String, TableHash> tables;
+    private final Map<String, SequenceHash> sequences;
+
+    private HibernateModelHashes(Map<String, TableHash> tables, Map<String, SequenceHash> sequences) {
+        this.tables = Collections.unmodifiableMap(tables);
+        this.sequences = Collections.unmodifiableMap(sequences);
+    }
+
+    public static HibernateModelHashes of(HibernateRelationalModel model) {
+        Map<String, TableHash> tables = new TreeMap<>();
+        for (HibernateRelationalModel.Table table : model.getTables()) {
+            if (!table.physical()) {
+                continue;
+            }
+            Set<String> references = new TreeSet<>();
+            for (HibernateRelationalModel.ForeignKey foreignKey : table.foreignKeys()) {
+                references.add(key(foreignKey.referencedCatalog(), foreignKey.referencedSchema(), foreignKey.referencedTable()));
+            }
+            tables.put(key(table.catalog(), table.schema(), table.name()), new TableHash(table.catalog(), table.schema(), table.name(),
+                    hash(out -> HibernateModelSerializer.writeTable(table, out)),
+                    hash(out -> HibernateModelSerializer.writeForeignKeys(table.foreignKeys(), out)),
+                    references));
+        }
+
+        Map<String, SequenceHash> sequences = new TreeMap<>();
+        for (HibernateRelationalModel.Sequence sequence : model.getSequences()) {
+            sequences.put(key(null, null, sequence.name()), new SequenceHash(sequence.name(), hash(out -> HibernateModelSerializer.writeSequence(sequence, out))));
+        }
+        return new HibernateModelHashes(tables, sequences);
+    }
+
+    /**
+     * Returns the hashes stored in the given file, or null if it does not exist.
+     */
+    public static HibernateModelHashes read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Map<String, TableHash> tables = new TreeMap<>();
+        Map<String, SequenceHash> sequences = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException(file + " does not contain hibernate model hashes");
+            }
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields[0].equals(TABLE) && fields.length == 7) {
+                    Set<String> references = new TreeSet<>();
+                    if (!fields[6].equals(NONE)) {
+                        Collections.addAll(references, fields[6].split(","));
+                    }
+                    TableHash table = new TableHash(nullable(fields[1]), nullable(fields[2]), fields[3], fields[4], fields[5], references);
+                    tables.put(key(table.catalog(), table.schema(), table.name()), table);
+                } else if (fields[0].equals(SEQUENCE) && fields.length == 3) {
+                    sequences.put(key(null, null, fields[1]), new SequenceHash(fields[1], fields[2]));
+                } else {
+                    throw new IOException("Unexpected line in " + file + ": " + line);
+                }
+            }
+        }
+        return new HibernateModelHashes(tables, sequences);
+    }
+
+    /**
+     * Writes the hashes, one line per table or sequence in sorted order. The file is replaced atomically.
+     */
+    public void write(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (TableHash table : tables.values()) {
+                    writer.write(String.join("\t", TABLE, orNone(table.catalog()), orNone(table.schema()), table.name(),
+                            table.hash(), table.foreignKeyHash(), table.references().isEmpty() ? NONE : String.join(",", table.references())));
+                    writer.newLine();
+                }
+                for (SequenceHash sequence : sequences.values()) {
+                    writer.write(String.join("\t", SEQUENCE, sequence.name(), sequence.hash()));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, file.toAbsolutePath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Returns the tables keyed by their lower-cased, dot-qualified name.
+     */
+    public Map<String, TableHash> getTables() {
+        return tables;
+    }
+
+    /**
+     * Returns the sequences keyed by their lower-cased name.
+     */
+    public Map<String, SequenceHash> getSequences() {
+        return sequences;
+    }
+
+    /**
+     * Returns the keys of the tables added, removed or changed since the baseline. When the foreign keys of a table changed,
+     * the tables referenced by its old and its new foreign keys are included too. References to tables that are in neither model are left out.
+     * Tables whose foreign keys, in either model, point at a table added, removed or changed are included as well, so the foreign keys
+     * between the two are compared on both ends.
+     */
+    public Set<String> changedTables(HibernateModelHashes baseline) {
+        Set<String> changed = new TreeSet<>();
+        Set<String> keys = new LinkedHashSet<>(tables.keySet());
+        keys.addAll(baseline.tables.keySet());
+        for (String key : keys) {
+            TableHash table = tables.get(key);
+            TableHash baselineTable = baseline.tables.get(key);
+            if (table != null && baselineTable != null && table.hash().equals(baselineTable.hash())) {
+                continue;
+            }
+            changed.add(key);
+            if (table == null || baselineTable == null || !table.foreignKeyHash().equals(baselineTable.foreignKeyHash())) {
+                for (TableHash side : new TableHash[]{table, baselineTable}) {
+                    if (side != null) {
+                        for (String reference : side.references()) {
+                            if (tables.containsKey(reference) || baseline.tables.containsKey(reference)) {
+                                changed.add(reference);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        Set<String> referencing = new TreeSet<>();
+        for (Map<String, TableHash> side : List.of(tables, baseline.tables)) {
+            for (Map.Entry<String, TableHash> table : side.entrySet()) {
+                if (!Collections.disjoint(table.getValue().references(), changed)) {
+                    referencing.add(table.getKey());
+                }
+            }
+        }
+        changed.addAll(referencing);
+        return changed;
+    }
+
+    /**
+     * Returns the keys of the sequences added, removed or changed since the baseline.
+     */
+    public Set<String> changedSequences(HibernateModelHashes baseline) {
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, SequenceHash> sequence : sequences.entrySet()) {
+            SequenceHash baselineSequence = baseline.sequences.get(sequence.getKey());
+            if (baselineSequence == null || !baselineSequence.hash().equals(sequence.getValue().hash())) {
+                changed.add(sequence.getKey());
+            }
+        }
+        for (String key : baseline.sequences.keySet()) {
+            if (!sequences.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    private static String key(String catalog, String schema, String name) {
+        StringBuilder key = new StringBuilder();
+        if (catalog != null && !catalog.isEmpty()) {
+            key.append(catalog).append('.');
+        }
+        if (schema != null && !schema.isEmpty()) {
+            key.append(schema).append('.');
+        }
+        return key.append(name).toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static String orNone(String value) {
+        return value == null || value.isEmpty() ? NONE : value;
+    }
+
+    private static String nullable(String value) {
+        return value.equals(NONE) ? null : value;
+    }
+
+    private static String hash(HashedContent content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+                content.write(out);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface HashedContent {
+        void write(DataOutput out) throws IOException;
+    }
+
+    /**
+     * The hashes of one table. {@code references} holds the keys of the tables its foreign keys point to.
+     */
+    public record TableHash(String catalog, String schema, String name, String hash, String foreignKeyHash, Set<String> references) {
+        public TableHash {
+            references = Collections.unmodifiableSet(new TreeSet<>(references));
+        }
+    }
+
+    public record SequenceHash(String name, String hash) {
+    }
+}
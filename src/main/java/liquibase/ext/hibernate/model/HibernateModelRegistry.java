@@ -0,0 +1,206 @@
+package liquibase.ext.hibernate.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide registry of {@link HibernateRelationalModel}s, so several {@link liquibase.ext.hibernate.database.HibernateDatabase} instances
+ * for the same configuration in one JVM share a single model instead of each bootstrapping hibernate. It is used when the
+ * {@value #SHARE_MODEL_PROPERTY} URL property is true.
+ * <p>
+ * Models are keyed by the configuration key of the database (the normalized URL and its properties) and the class loader the mapped classes
+ * come from. Every database using a model holds a reference until it is closed. Unreferenced models stay registered for later reuse and are
+ * evicted least recently used first once the estimated size of all models exceeds the bound set with the
+ * {@value #MAX_BYTES_SYSTEM_PROPERTY} system property. {@link #invalidate(String)} and {@link #invalidateAll()} drop models whose mapping
+ * is known to have changed, for example in a watch mode.
+ */
+public final class HibernateModelRegistry {
+
+    public static final String SHARE_MODEL_PROPERTY = "shareModel";
+    public static final String MAX_BYTES_SYSTEM_PROPERTY = "liquibase.hibernate.modelRegistry.maxBytes";
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final HibernateModelRegistry INSTANCE = new HibernateModelRegistry(Long.getLong(MAX_BYTES_SYSTEM_PROPERTY, DEFAULT_MAX_BYTES));
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, SharedModel> models = new LinkedHashMap<>(16, 0.75f, true);
+    private long estimatedBytes;
+
+    public HibernateModelRegistry(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static HibernateModelRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the model registered for the configuration and class loader with one more reference, or null if there is none.
+     */
+    public synchronized SharedModel acquire(String configurationKey, ClassLoader classLoader) {
+        Key key = new Key(configurationKey, System.identityHashCode(classLoader));
+        SharedModel sharedModel = models.get(key);
+        if (sharedModel == null) {
+            return null;
+        }
+        if (sharedModel.classLoader.get() != classLoader) {
+            // the class loader was collected, or a different one has the same identity hash
+            remove(key);
+            return null;
+        }
+        sharedModel.references++;
+        return sharedModel;
+    }
+
+    /**
+     * Registers a model with one reference held by the caller.
+     * If another caller registered a model for the same configuration in the meantime, that one is returned instead.
+     */
+    public synchronized SharedModel register(String configurationKey, ClassLoader classLoader, HibernateRelationalModel model, String dialectName) {
+        SharedModel existing = acquire(configurationKey, classLoader);
+        if (existing != null) {
+            return existing;
+        }
+        Key key = new Key(configurationKey, System.identityHashCode(classLoader));
+        SharedModel sharedModel = new SharedModel(key, classLoader, model, dialectName, estimateSize(model));
+        sharedModel.references = 1;
+        models.put(key, sharedModel);
+        estimatedBytes += sharedModel.estimatedBytes;
+        evict();
+        return sharedModel;
+    }
+
+    /**
+     * Drops one reference to the model. The model stays registered until it is evicted or invalidated.
+     */
+    public synchronized void release(SharedModel sharedModel) {
+        if (sharedModel.references > 0) {
+            sharedModel.references--;
+        }
+        evict();
+    }
+
+    /**
+     * Removes every model registered for the given configuration key. Databases already using one keep it until they are closed.
+     */
+    public synchronized void invalidate(String configurationKey) {
+        Iterator<Map.Entry<Key, SharedModel>> iterator = models.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, SharedModel> entry = iterator.next();
+            if (entry.getKey().configurationKey.equals(configurationKey)) {
+                iterator.remove();
+                estimatedBytes -= entry.getValue().estimatedBytes;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        models.clear();
+        estimatedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return models.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, SharedModel>> iterator = models.entrySet().iterator();
+        while (estimatedBytes > maxBytes && iterator.hasNext()) {
+            SharedModel sharedModel = iterator.next().getValue();
+            if (sharedModel.references == 0) {
+                iterator.remove();
+                estimatedBytes -= sharedModel.estimatedBytes;
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        SharedModel removed = models.remove(key);
+        if (removed != null) {
+            estimatedBytes -= removed.estimatedBytes;
+        }
+    }
+
+    /**
+     * Rough retained size of a model: object headers plus two bytes per character of every name, type and comment.
+     */
+    static long estimateSize(HibernateRelationalModel model) {
+        long size = 64;
+        for (HibernateRelationalModel.Table table : model.getTables()) {
+            size += 96 + length(table.catalog()) + length(table.schema()) + length(table.name()) + length(table.comment());
+            for (HibernateRelationalModel.Column column : table.columns()) {
+                size += 96 + length(column.name()) + length(column.sqlType()) + length(column.defaultValue())
+                        + length(column.valueTypeName()) + length(column.comment()) + length(column.defaultSequenceName());
+            }
+            if (table.primaryKeyColumns() != null) {
+                size += 32 + 16L * table.primaryKeyColumns().size();
+            }
+            for (HibernateRelationalModel.ForeignKey foreignKey : table.foreignKeys()) {
+                size += 64 + length(foreignKey.name()) + length(foreignKey.referencedTable()) + 16L * (foreignKey.columns().size() + foreignKey.referencedColumns().size());
+            }
+            for (HibernateRelationalModel.Index index : table.indexes()) {
+                size += 48 + length(index.name()) + 32L * index.columns().size();
+            }
+            for (HibernateRelationalModel.UniqueKey uniqueKey : table.uniqueKeys()) {
+                size += 48 + length(uniqueKey.name()) + 16L * uniqueKey.columns().size();
+            }
+        }
+        for (HibernateRelationalModel.Sequence sequence : model.getSequences()) {
+            size += 48 + length(sequence.name());
+        }
+        return size;
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    private record Key(String configurationKey, int classLoaderIdentity) {
+    }
+
+    /**
+     * A registered model, with the class name of the dialect it was extracted for.
+     */
+    public static final class SharedModel {
+        private final Key key;
+        private final WeakReference<ClassLoader> classLoader;
+        private final HibernateRelationalModel model;
+        private final String dialectName;
+        private final long estimatedBytes;
+        private volatile int references;
+
+        private SharedModel(Key key, ClassLoader classLoader, HibernateRelationalModel model, String dialectName, long estimatedBytes) {
+            this.key = key;
+            this.classLoader = new WeakReference<>(classLoader);
+            this.model = model;
+            this.dialectName = dialectName;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public HibernateRelationalModel getModel() {
+            return model;
+        }
+
+        public String getDialectName() {
+            return dialectName;
+        }
+
+        public String getConfigurationKey() {
+            return key.configurationKey;
+        }
+
+        public int getReferences() {
+            return references;
+        }
+    }
+}
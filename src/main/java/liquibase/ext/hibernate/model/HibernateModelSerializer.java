@@ -0,0 +1,217 @@
+package liquibase.ext.hibernate.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of a {@link HibernateRelationalModel}.
+ * Strings are written as length-prefixed UTF-8 with a length of -1 for null, so there is no limit on comment length.
+ * The format carries no header of its own; callers that persist it are responsible for versioning.
+ */
+public final class HibernateModelSerializer {
+
+    private HibernateModelSerializer() {
+    }
+
+    public static void write(HibernateRelationalModel model, DataOutput out) throws IOException {
+        out.writeInt(model.getTables().size());
+        for (HibernateRelationalModel.Table table : model.getTables()) {
+            writeTable(table, out);
+        }
+        out.writeInt(model.getSequences().size());
+        for (HibernateRelationalModel.Sequence sequence : model.getSequences()) {
+            writeSequence(sequence, out);
+        }
+    }
+
+    public static HibernateRelationalModel read(DataInput in) throws IOException {
+        int tableCount = in.readInt();
+        List<HibernateRelationalModel.Table> tables = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            tables.add(readTable(in));
+        }
+        int sequenceCount = in.readInt();
+        List<HibernateRelationalModel.Sequence> sequences = new ArrayList<>(sequenceCount);
+        for (int i = 0; i < sequenceCount; i++) {
+            sequences.add(new HibernateRelationalModel.Sequence(readString(in), in.readLong(), in.readLong()));
+        }
+        return new HibernateRelationalModel(tables, sequences);
+    }
+
+    static void writeSequence(HibernateRelationalModel.Sequence sequence, DataOutput out) throws IOException {
+        writeString(sequence.name(), out);
+        out.writeLong(sequence.startValue());
+        out.writeLong(sequence.incrementBy());
+    }
+
+    static void writeTable(HibernateRelationalModel.Table table, DataOutput out) throws IOException {
+        writeString(table.catalog(), out);
+        writeString(table.schema(), out);
+        writeString(table.name(), out);
+        writeString(table.comment(), out);
+        out.writeBoolean(table.physical());
+
+        out.writeInt(table.columns().size());
+        for (HibernateRelationalModel.Column column : table.columns()) {
+            writeString(column.name(), out);
+            writeString(column.sqlType(), out);
+            out.writeBoolean(column.sqlTypeCode() != null);
+            if (column.sqlTypeCode() != null) {
+                out.writeInt(column.sqlTypeCode());
+            }
+            writeString(column.defaultValue(), out);
+            out.writeBoolean(column.simpleValue());
+            writeString(column.valueTypeName(), out);
+            writeString(column.comment(), out);
+            out.writeBoolean(column.nullable());
+            out.writeBoolean(column.unique());
+            out.writeBoolean(column.primaryKey());
+            out.writeBoolean(column.autoIncrement());
+            writeString(column.defaultSequenceName(), out);
+        }
+
+        out.writeBoolean(table.primaryKeyColumns() != null);
+        if (table.primaryKeyColumns() != null) {
+            writeStrings(table.primaryKeyColumns(), out);
+        }
+
+        writeForeignKeys(table.foreignKeys(), out);
+
+        out.writeInt(table.indexes().size());
+        for (HibernateRelationalModel.Index index : table.indexes()) {
+            writeString(index.name(), out);
+            writeBoolean(index.unique(), out);
+            out.writeInt(index.columns().size());
+            for (HibernateRelationalModel.IndexColumn column : index.columns()) {
+                writeString(column.name(), out);
+                writeBoolean(column.descending(), out);
+            }
+        }
+
+        out.writeInt(table.uniqueKeys().size());
+        for (HibernateRelationalModel.UniqueKey uniqueKey : table.uniqueKeys()) {
+            writeString(uniqueKey.name(), out);
+            writeStrings(uniqueKey.columns(), out);
+        }
+    }
+
+    static void writeForeignKeys(List<HibernateRelationalModel.ForeignKey> foreignKeys, DataOutput out) throws IOException {
+        out.writeInt(foreignKeys.size());
+        for (HibernateRelationalModel.ForeignKey foreignKey : foreignKeys) {
+            writeString(foreignKey.name(), out);
+            writeString(foreignKey.referencedCatalog(), out);
+            writeString(foreignKey.referencedSchema(), out);
+            writeString(foreignKey.referencedTable(), out);
+            writeStrings(foreignKey.columns(), out);
+            writeStrings(foreignKey.referencedColumns(), out);
+        }
+    }
+
+    private static HibernateRelationalModel.Table readTable(DataInput in) throws IOException {
+        String catalog = readString(in);
+        String schema = readString(in);
+        String name = readString(in);
+        String comment = readString(in);
+        boolean physical = in.readBoolean();
+
+        int columnCount = in.readInt();
+        List<HibernateRelationalModel.Column> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            String columnName = readString(in);
+            String sqlType = readString(in);
+            Integer sqlTypeCode = in.readBoolean() ? in.readInt() : null;
+            columns.add(new HibernateRelationalModel.Column(
+                    columnName,
+                    sqlType,
+                    sqlTypeCode,
+                    readString(in),
+                    in.readBoolean(),
+                    readString(in),
+                    readString(in),
+                    in.readBoolean(),
+                    in.readBoolean(),
+                    in.readBoolean(),
+                    in.readBoolean(),
+                    readString(in)));
+        }
+
+        List<String> primaryKeyColumns = in.readBoolean() ? readStrings(in) : null;
+
+        int foreignKeyCount = in.readInt();
+        List<HibernateRelationalModel.ForeignKey> foreignKeys = new ArrayList<>(foreignKeyCount);
+        for (int i = 0; i < foreignKeyCount; i++) {
+            foreignKeys.add(new HibernateRelationalModel.ForeignKey(
+                    readString(in), readString(in), readString(in), readString(in), readStrings(in), readStrings(in)));
+        }
+
+        int indexCount = in.readInt();
+        List<HibernateRelationalModel.Index> indexes = new ArrayList<>(indexCount);
+        for (int i = 0; i < indexCount; i++) {
+            String indexName = readString(in);
+            Boolean unique = readBoolean(in);
+            int indexColumnCount = in.readInt();
+            List<HibernateRelationalModel.IndexColumn> indexColumns = new ArrayList<>(indexColumnCount);
+            for (int j = 0; j < indexColumnCount; j++) {
+                indexColumns.add(new HibernateRelationalModel.IndexColumn(readString(in), readBoolean(in)));
+            }
+            indexes.add(new HibernateRelationalModel.Index(indexName, unique, indexColumns));
+        }
+
+        int uniqueKeyCount = in.readInt();
+        List<HibernateRelationalModel.UniqueKey> uniqueKeys = new ArrayList<>(uniqueKeyCount);
+        for (int i = 0; i < uniqueKeyCount; i++) {
+            uniqueKeys.add(new HibernateRelationalModel.UniqueKey(readString(in), readStrings(in)));
+        }
+
+        return new HibernateRelationalModel.Table(catalog, schema, name, comment, physical, columns, primaryKeyColumns, foreignKeys, indexes, uniqueKeys);
+    }
+
+    private static void writeString(String value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(List<String> values, DataOutput out) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(value, out);
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeBoolean(Boolean value, DataOutput out) throws IOException {
+        out.writeByte(value == null ? -1 : (value ? 1 : 0));
+    }
+
+    private static Boolean readBoolean(DataInput in) throws IOException {
+        byte value = in.readByte();
+        return value < 0 ? null : value == 1;
+    }
+}
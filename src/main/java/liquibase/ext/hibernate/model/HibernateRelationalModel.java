@@ -0,0 +1,166 @@
+package liquibase.ext.hibernate.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable relational view of a Hibernate mapping: the tables with their columns and keys, and the sequences.
+ * It is extracted from the Hibernate {@link org.hibernate.boot.Metadata} by {@link HibernateModelExtractor} and is what the snapshot generators read.
+ * Because it holds only plain values it can also be written to and read from disk by {@link HibernateModelSerializer}.
+ */
+public final class HibernateRelationalModel {
+
+    private final List<Table> tables;
+    private final List<Sequence> sequences;
+    private final Map<String, List<Table>> tablesByName;
+    private final Map<TableKey, Table> tablesByKey;
+
+    public HibernateRelationalModel(List<Table> tables, List<Sequence> sequences) {
+        this.tables = List.copyOf(tables);
+        this.sequences = List.copyOf(sequences);
+
+        Map<String, List<Table>> tablesByName = new HashMap<>();
+        Map<TableKey, Table> tablesByKey = new HashMap<>();
+        for (Table table : this.tables) {
+            tablesByName.computeIfAbsent(normalize(table.name()), k -> new ArrayList<>(1)).add(table);
+            tablesByKey.putIfAbsent(TableKey.of(table.catalog(), table.schema(), table.name()), table);
+        }
+        this.tablesByName = tablesByName;
+        this.tablesByKey = tablesByKey;
+    }
+
+    /**
+     * Returns every table of the mapping, in the order Hibernate registered them.
+     */
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    public List<Sequence> getSequences() {
+        return sequences;
+    }
+
+    /**
+     * Returns the table with the given name, or null if there is none. Names are compared case-insensitively.
+     * If several tables share the name, the one with exactly the given catalog and schema is preferred, then one whose catalog and schema match
+     * where a null catalog or schema on either side matches anything.
+     */
+    public Table findTable(String catalogName, String schemaName, String tableName) {
+        if (tableName == null) {
+            return null;
+        }
+        List<Table> candidates = tablesByName.get(normalize(tableName));
+        if (candidates == null) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        Table table = tablesByKey.get(TableKey.of(catalogName, schemaName, tableName));
+        if (table != null) {
+            return table;
+        }
+        for (Table candidate : candidates) {
+            if (matches(candidate.catalog(), catalogName) && matches(candidate.schema(), schemaName)) {
+                return candidate;
+            }
+        }
+        return candidates.get(0);
+    }
+
+    private static boolean matches(String modelName, String name) {
+        return modelName == null || name == null || modelName.equalsIgnoreCase(name);
+    }
+
+    private static String normalize(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static <T> List<T> copyOf(List<T> list) {
+        return list == null ? Collections.emptyList() : List.copyOf(list);
+    }
+
+    private record TableKey(String catalog, String schema, String name) {
+        static TableKey of(String catalog, String schema, String name) {
+            return new TableKey(normalize(catalog), normalize(schema), normalize(name));
+        }
+    }
+
+    /**
+     * A mapped table. {@code primaryKeyColumns} is null when the table has no primary key.
+     */
+    public record Table(String catalog, String schema, String name, String comment, boolean physical,
+                        List<Column> columns, List<String> primaryKeyColumns, List<ForeignKey> foreignKeys,
+                        List<Index> indexes, List<UniqueKey> uniqueKeys) {
+        public Table {
+            columns = copyOf(columns);
+            primaryKeyColumns = primaryKeyColumns == null ? null : List.copyOf(primaryKeyColumns);
+            foreignKeys = copyOf(foreignKeys);
+            indexes = copyOf(indexes);
+            uniqueKeys = copyOf(uniqueKeys);
+        }
+
+        /**
+         * Returns the column with the given name, compared case-insensitively, or null if there is none.
+         */
+        public Column getColumn(String columnName) {
+            for (Column column : columns) {
+                if (column.name().equalsIgnoreCase(columnName)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A mapped column.
+     * {@code sqlType} is the type as rendered by Hibernate, including any DEFAULT clause.
+     * {@code simpleValue} and {@code valueTypeName} describe the Hibernate value the column belongs to and are used to parse default values.
+     * {@code defaultSequenceName} is set when the column's default is the next value of a sequence rather than an identity.
+     */
+    public record Column(String name, String sqlType, Integer sqlTypeCode, String defaultValue,
+                         boolean simpleValue, String valueTypeName, String comment,
+                         boolean nullable, boolean unique, boolean primaryKey,
+                         boolean autoIncrement, String defaultSequenceName) {
+    }
+
+    /**
+     * A physical foreign key owned by the table it is listed on.
+     */
+    public record ForeignKey(String name, String referencedCatalog, String referencedSchema, String referencedTable,
+                             List<String> columns, List<String> referencedColumns) {
+        public ForeignKey {
+            columns = copyOf(columns);
+            referencedColumns = copyOf(referencedColumns);
+        }
+    }
+
+    /**
+     * An index. {@code unique} is null when Hibernate does not say.
+     */
+    public record Index(String name, Boolean unique, List<IndexColumn> columns) {
+        public Index {
+            columns = copyOf(columns);
+        }
+    }
+
+    /**
+     * A column of an {@link Index}. {@code descending} is null when no order was declared.
+     */
+    public record IndexColumn(String name, Boolean descending) {
+    }
+
+    public record UniqueKey(String name, List<String> columns) {
+        public UniqueKey {
+            columns = copyOf(columns);
+        }
+    }
+
+    public record Sequence(String name, long startValue, long incrementBy) {
+    }
+}
@@ -1,6 +1,5 @@
 package liquibase.ext.hibernate.snapshot;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -10,6 +9,7 @@ import liquibase.datatype.DataTypeFactory;
 import liquibase.datatype.core.UnknownType;
 import liquibase.exception.DatabaseException;
 import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGenerator;
@@ -21,13 +21,7 @@ import liquibase.structure.core.Relation;
 import liquibase.structure.core.Table;
 import liquibase.util.SqlUtil;
 import liquibase.util.StringUtil;
-import org.hibernate.boot.model.relational.SqlStringGenerationContext;
-import org.hibernate.boot.model.relational.internal.SqlStringGenerationContextImpl;
-import org.hibernate.boot.spi.MetadataImplementor;
 import org.hibernate.dialect.Dialect;
-import org.hibernate.dialect.PostgreSQLDialect;
-import org.hibernate.mapping.GeneratorSettings;
-import org.hibernate.mapping.SimpleValue;
 import org.hibernate.type.SqlTypes;
 
 
@@ -40,7 +34,9 @@ public class ColumnSnapshotGenerator extends HibernateSnapshotGenerator {
     private static final String SQL_TIMEZONE_SUFFIX = "with time zone";
     private static final String LIQUIBASE_TIMEZONE_SUFFIX = "with timezone";
 
-    private static final Pattern pattern = Pattern.compile("([^\\(]*)\\s*\\(?\\s*(\\d*)?\\s*,?\\s*(\\d*)?\\s*([^\\(]*?)\\)?");
+    private static final Pattern SQL_TYPE_PATTERN = Pattern.compile("([^\\(]*)\\s*\\(?\\s*(\\d*)?\\s*,?\\s*(\\d*)?\\s*([^\\(]*?)\\)?");
+
+    private static final SqlTypeCache SQL_TYPE_CACHE = new SqlTypeCache();
 
     public ColumnSnapshotGenerator() {
         super(Column.class, new Class[]{Table.class});
@@ -70,144 +66,97 @@ public class ColumnSnapshotGenerator extends HibernateSnapshotGenerator {
 
     @Override
     protected void addTo(DatabaseObject foundObject, DatabaseSnapshot snapshot) throws DatabaseException, InvalidExampleException {
-        if (foundObject instanceof Table) {
-            org.hibernate.mapping.Table hibernateTable = findHibernateTable(foundObject, snapshot);
+        if (foundObject instanceof Table table) {
+            HibernateRelationalModel.Table hibernateTable = findHibernateTable(foundObject, snapshot);
             if (hibernateTable == null) {
                 return;
             }
 
-            for (org.hibernate.mapping.Column hibernateColumn: hibernateTable.getColumns()) {
+            for (HibernateRelationalModel.Column hibernateColumn : hibernateTable.columns()) {
                 Column column = new Column();
-                column.setName(hibernateColumn.getName());
-                column.setRelation((Table) foundObject);
-
-                snapshotColumn(column, snapshot);
-
+                column.setName(hibernateColumn.name());
+                column.setRelation(table);
 
-                ((Table) foundObject).getColumns().add(column);
+                snapshotColumn(column, hibernateColumn, snapshot);
 
+                table.getColumns().add(column);
             }
+            countSnapshotObjects(snapshot, Column.class, hibernateTable.columns().size());
         }
     }
 
     protected void snapshotColumn(Column column, DatabaseSnapshot snapshot) throws DatabaseException {
-        HibernateDatabase database = (HibernateDatabase) snapshot.getDatabase();
-
-        org.hibernate.mapping.Table hibernateTable = findHibernateTable(column.getRelation(), snapshot);
+        HibernateRelationalModel.Table hibernateTable = findHibernateTable(column.getRelation(), snapshot);
         if (hibernateTable == null) {
             return;
         }
 
-        Dialect dialect = database.getDialect();
-        MetadataImplementor metadata = (MetadataImplementor) database.getMetadata();
-
-        for (org.hibernate.mapping.Column hibernateColumn : hibernateTable.getColumns()) {
-            if (hibernateColumn.getName().equalsIgnoreCase(column.getName())) {
-
-                String defaultValue = null;
-                String hibernateType = hibernateColumn.getSqlType(metadata);
+        HibernateRelationalModel.Column hibernateColumn = hibernateTable.getColumn(column.getName());
+        if (hibernateColumn != null) {
+            snapshotColumn(column, hibernateColumn, snapshot);
+        }
+    }
 
-                Matcher defaultValueMatcher = Pattern.compile("(?i) DEFAULT\\s+(.*)").matcher(hibernateType);
-                if (defaultValueMatcher.find()) {
-                    defaultValue = defaultValueMatcher.group(1);
-                    hibernateType = hibernateType.replace(defaultValueMatcher.group(0), "");
-                }
+    /**
+     * Fills in type, default value, nullability and auto-increment for a single column.
+     * Primary key membership and the identifier generation strategy were resolved when the model was extracted, so this does no per-table work.
+     */
+    private void snapshotColumn(Column column, HibernateRelationalModel.Column hibernateColumn, DatabaseSnapshot snapshot) throws DatabaseException {
+        HibernateDatabase database = (HibernateDatabase) snapshot.getDatabase();
+        Dialect dialect = database.getDialect();
 
-                DataType dataType = toDataType(hibernateType, hibernateColumn.getSqlTypeCode());
-                if (dataType == null) {
-                    throw new DatabaseException("Unable to find column data type for column " + hibernateColumn.getName());
-                }
+        SqlTypeCache.ParsedSqlType parsedType = SQL_TYPE_CACHE.get(
+                hibernateColumn.sqlType(),
+                hibernateColumn.sqlTypeCode(),
+                dialect == null ? null : dialect.getClass().getName(),
+                getClass(),
+                this::toDataType);
+        String defaultValue = parsedType.getDefaultValue();
+
+        DataType dataType = parsedType.getDataType();
+        if (dataType == null) {
+            throw new DatabaseException("Unable to find column data type for column " + hibernateColumn.name());
+        }
 
-                column.setType(dataType);
-                column.setRemarks(hibernateColumn.getComment());
+        column.setType(dataType);
+        column.setRemarks(hibernateColumn.comment());
 
-                boolean isEnumType = Optional.ofNullable(dataType.getDataTypeId())
-                        .map(SqlTypes::isEnumType)
-                        .orElse(false);
+        boolean isEnumType = Optional.ofNullable(dataType.getDataTypeId())
+                .map(SqlTypes::isEnumType)
+                .orElse(false);
 
-                if (!isEnumType && hibernateColumn.getValue() instanceof SimpleValue) {
-                    DataType parseType;
-                    if (DataTypeFactory.getInstance().from(dataType, database) instanceof UnknownType) {
-                        parseType = new DataType(((SimpleValue) hibernateColumn.getValue()).getTypeName());
-                    } else {
-                        parseType = dataType;
-                    }
+        if (!isEnumType && hibernateColumn.simpleValue()) {
+            DataType parseType;
+            if (DataTypeFactory.getInstance().from(dataType, database) instanceof UnknownType) {
+                parseType = new DataType(hibernateColumn.valueTypeName());
+            } else {
+                parseType = dataType;
+            }
 
-                    if (defaultValue == null) {
-                        defaultValue = hibernateColumn.getDefaultValue();
-                    }
+            if (defaultValue == null) {
+                defaultValue = hibernateColumn.defaultValue();
+            }
 
-                    column.setDefaultValue(SqlUtil.parseValue(snapshot.getDatabase(), defaultValue, parseType));
-                } else {
-                    column.setDefaultValue(hibernateColumn.getDefaultValue());
-                }
-                column.setNullable(hibernateColumn.isNullable());
-                column.setCertainDataType(false);
-
-                // PRIMARY KEY & AUTO-INCREMENT LOGIC (HIBERNATE 7)
-                org.hibernate.mapping.PrimaryKey hibernatePrimaryKey = hibernateTable.getPrimaryKey();
-                if (hibernatePrimaryKey != null) {
-                    boolean isPrimaryKeyColumn = false;
-                    for (org.hibernate.mapping.Column pkColumn : (List<org.hibernate.mapping.Column>) hibernatePrimaryKey.getColumns()) {
-                        if (pkColumn.getName().equalsIgnoreCase(hibernateColumn.getName())) {
-                            isPrimaryKeyColumn = true;
-                            column.setNullable(false);
-                            break;
-                        }
-                    }
+            column.setDefaultValue(SqlUtil.parseValue(snapshot.getDatabase(), defaultValue, parseType));
+        } else {
+            column.setDefaultValue(hibernateColumn.defaultValue());
+        }
+        column.setNullable(hibernateColumn.nullable());
+        column.setCertainDataType(false);
 
-                    if (isPrimaryKeyColumn && hibernateColumn.getValue() instanceof SimpleValue simpleValue) {
-                        var persistentClass = findPersistentClass(metadata, hibernateTable);
-
-                        if (persistentClass != null) {
-                            var rootClass = persistentClass.getRootClass();
-                            var identifierProperty = rootClass.getIdentifierProperty();
-                            var memberDetails = getMemberDetails(simpleValue);
-
-                            // Detection of Generation Intent:
-                            // For annotation-based entities, if @GeneratedValue is absent the ID
-                            // is application-assigned and no generator should be created.
-                            // For XML-mapped entities (memberDetails is null), we always process
-                            // the generator since the intent is declared in the hbm.xml mapping.
-                            boolean hasGeneratedValue = memberDetails == null || hasAnnotation(memberDetails, jakarta.persistence.GeneratedValue.class);
-
-                            if (hasGeneratedValue) {
-                                var generatorSettings = createGeneratorSettings(simpleValue);
-                                var generator = simpleValue.createGenerator(dialect, rootClass, identifierProperty, generatorSettings);
-
-                                if (generator != null) {
-                                    boolean isAutoIncrement = false;
-
-                                    // Resolution of the GenerationType Strategy:
-                                    // IDENTITY maps to a database-native "auto-increment" column.
-                                    // SEQUENCE and TABLE indicate separate generator objects and should NOT
-                                    // be marked as auto-increment in Liquibase metadata.
-                                    if (generator instanceof org.hibernate.id.IdentityGenerator) {
-                                        isAutoIncrement = true;
-                                    } else if (generator instanceof org.hibernate.id.enhanced.SequenceStyleGenerator seqGen) {
-                                        isAutoIncrement = handleSequenceGenerator(seqGen, dialect, database, column, hibernateTable, hibernateColumn);
-                                    } else if (generator instanceof org.hibernate.id.NativeGenerator nativeGen) {
-                                        isAutoIncrement = handleNativeGenerator(nativeGen, dialect, database, column, hibernateTable, hibernateColumn);
-                                    } else if (generator instanceof org.hibernate.id.enhanced.TableGenerator) {
-                                        // TABLE strategy is a pre-insert generator, not a database identity column.
-                                        isAutoIncrement = false;
-                                    }
-
-                                    if (isAutoIncrement && database.supportsAutoIncrement()) {
-                                        column.setAutoIncrementInformation(new Column.AutoIncrementInformation());
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-                return;
-            }
+        if (hibernateColumn.primaryKey()) {
+            column.setNullable(false);
+        }
+        if (hibernateColumn.defaultSequenceName() != null) {
+            column.setDefaultValue(new DatabaseFunction("nextval('" + hibernateColumn.defaultSequenceName() + "'::regclass)"));
+        }
+        if (hibernateColumn.autoIncrement()) {
+            column.setAutoIncrementInformation(new Column.AutoIncrementInformation());
         }
     }
 
     protected DataType toDataType(String hibernateType, Integer sqlTypeCode) {
-        Matcher matcher = pattern.matcher(hibernateType);
+        Matcher matcher = SQL_TYPE_PATTERN.matcher(hibernateType);
         if (!matcher.matches()) {
             return null;
         }
@@ -260,126 +209,21 @@ public class ColumnSnapshotGenerator extends HibernateSnapshotGenerator {
             }
         }
 
-        Scope.getCurrentScope().getLog(getClass()).info("Converted column data type - hibernate type: " + hibernateType + ", SQL type: " + sqlTypeCode + ", type name: " + dataType.getTypeName());
+        Scope.getCurrentScope().getLog(getClass()).fine("Converted column data type - hibernate type: " + hibernateType + ", SQL type: " + sqlTypeCode + ", type name: " + dataType.getTypeName());
 
         dataType.setDataTypeId(sqlTypeCode);
         return dataType;
     }
 
-    @Override
-    public Class<? extends SnapshotGenerator>[] replaces() {
-        return new Class[]{liquibase.snapshot.jvm.ColumnSnapshotGenerator.class};
-    }
-
-    private boolean handleSequenceGenerator(
-            org.hibernate.id.enhanced.SequenceStyleGenerator seqGen,
-            Dialect dialect, HibernateDatabase database, Column column,
-            org.hibernate.mapping.Table hibernateTable,
-            org.hibernate.mapping.Column hibernateColumn) {
-        if (PostgreSQLDialect.class.isAssignableFrom(dialect.getClass())) {
-            String sequenceName = resolveSequenceName(seqGen, hibernateTable, hibernateColumn);
-            column.setDefaultValue(new DatabaseFunction("nextval('" + sequenceName + "'::regclass)"));
-            return false;
-        }
-        return database.supportsAutoIncrement();
-    }
-
-    private boolean handleNativeGenerator(
-            org.hibernate.id.NativeGenerator nativeGen,
-            Dialect dialect, HibernateDatabase database, Column column,
-            org.hibernate.mapping.Table hibernateTable,
-            org.hibernate.mapping.Column hibernateColumn) {
-        return switch (nativeGen.getGenerationType()) {
-            case IDENTITY -> true;
-            case SEQUENCE -> {
-                var delegate = getNativeGeneratorDelegate(nativeGen);
-                if (delegate instanceof org.hibernate.id.enhanced.SequenceStyleGenerator seqGen) {
-                    yield handleSequenceGenerator(seqGen, dialect, database, column, hibernateTable, hibernateColumn);
-                }
-                yield database.supportsAutoIncrement();
-            }
-            default -> false;
-        };
-    }
-
-    private org.hibernate.generator.Generator getNativeGeneratorDelegate(org.hibernate.id.NativeGenerator nativeGen) {
-        try {
-            var field = org.hibernate.id.NativeGenerator.class.getDeclaredField("dialectNativeGenerator");
-            field.setAccessible(true);
-            return (org.hibernate.generator.Generator) field.get(nativeGen);
-        } catch (ReflectiveOperationException | RuntimeException e) {
-            Scope.getCurrentScope().getLog(getClass()).fine("Could not access NativeGenerator delegate", e);
-            return null;
-        }
-    }
-
     /**
-     * Returns member details via reflection, for compatibility with Hibernate < 7.3
-     * where SimpleValue.getMemberDetails() does not exist.
+     * Returns the cache of parsed SQL types shared by all column snapshots, e.g. to check its hit and miss counts.
      */
-    private Object getMemberDetails(SimpleValue simpleValue) {
-        try {
-            var method = SimpleValue.class.getMethod("getMemberDetails");
-            return method.invoke(simpleValue);
-        } catch (NoSuchMethodException e) {
-            return null;
-        } catch (ReflectiveOperationException e) {
-            Scope.getCurrentScope().getLog(getClass()).fine("Could not get member details", e);
-            return null;
-        }
+    public static SqlTypeCache getSqlTypeCache() {
+        return SQL_TYPE_CACHE;
     }
 
-    /**
-     * Checks for an annotation on member details via reflection, for compatibility
-     * with Hibernate < 7.3 where MemberDetails may not be available.
-     */
-    private boolean hasAnnotation(Object memberDetails, Class<? extends java.lang.annotation.Annotation> annotationType) {
-        try {
-            var method = memberDetails.getClass().getMethod("hasDirectAnnotationUsage", Class.class);
-            return (boolean) method.invoke(memberDetails, annotationType);
-        } catch (ReflectiveOperationException e) {
-            return true; // assume yes when we can't determine
-        }
-    }
-
-    private org.hibernate.mapping.PersistentClass findPersistentClass(
-            MetadataImplementor metadata, org.hibernate.mapping.Table hibernateTable) {
-        return metadata.getEntityBindings().stream()
-                .filter(pc -> pc.getTable().equals(hibernateTable))
-                .findFirst()
-                .orElse(null);
-    }
-
-    private GeneratorSettings createGeneratorSettings(SimpleValue simpleValue) {
-        var buildingContext = simpleValue.getBuildingContext();
-        return new GeneratorSettings() {
-            @Override
-            public String getDefaultCatalog() {
-                return null;
-            }
-
-            @Override
-            public String getDefaultSchema() {
-                return null;
-            }
-
-            @Override
-            public SqlStringGenerationContext getSqlStringGenerationContext() {
-                var db = buildingContext.getMetadataCollector().getDatabase();
-                return SqlStringGenerationContextImpl.fromExplicit(
-                        db.getJdbcEnvironment(), db, getDefaultCatalog(), getDefaultSchema());
-            }
-        };
-    }
-
-    private String resolveSequenceName(
-            org.hibernate.id.enhanced.SequenceStyleGenerator seqGen,
-            org.hibernate.mapping.Table hibernateTable,
-            org.hibernate.mapping.Column hibernateColumn) {
-        var structure = seqGen.getDatabaseStructure();
-        if (structure.getPhysicalName() != null) {
-            return structure.getPhysicalName().render();
-        }
-        return (hibernateTable.getName() + "_" + hibernateColumn.getName() + "_seq").toLowerCase();
+    @Override
+    public Class<? extends SnapshotGenerator>[] replaces() {
+        return new Class[]{liquibase.snapshot.jvm.ColumnSnapshotGenerator.class};
     }
 }
@@ -1,21 +1,31 @@
 package liquibase.ext.hibernate.snapshot;
 
-import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 import liquibase.exception.DatabaseException;
 import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGenerator;
 import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
 import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Index;
 import liquibase.structure.core.Table;
-import org.hibernate.boot.spi.MetadataImplementor;
-import org.hibernate.mapping.Column;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 public class ForeignKeySnapshotGenerator extends HibernateSnapshotGenerator {
 
+    /**
+     * The longest backing index name that is used as is; longer names are replaced by a hashed name.
+     * It is the 30 character identifier limit enforced by a few dialects.
+     */
+    private static final int MAX_INDEX_NAME_LENGTH = 30;
+
     public ForeignKeySnapshotGenerator() {
         super(ForeignKey.class, new Class[]{Table.class});
     }
@@ -31,54 +41,116 @@ public class ForeignKeySnapshotGenerator extends HibernateSnapshotGenerator {
             return;
         }
         if (foundObject instanceof Table table) {
-            HibernateDatabase database = (HibernateDatabase) snapshot.getDatabase();
-            MetadataImplementor metadata = (MetadataImplementor) database.getMetadata();
-
-            Collection<org.hibernate.mapping.Table> tmapp = metadata.collectTableMappings();
-            for (org.hibernate.mapping.Table hibernateTable : tmapp) {
-                for (org.hibernate.mapping.ForeignKey hibernateForeignKey : hibernateTable.getForeignKeyCollection()) {
-                    Table currentTable = new Table().setName(hibernateTable.getName());
-                    currentTable.setSchema(hibernateTable.getCatalog(), hibernateTable.getSchema());
-
-                    org.hibernate.mapping.Table hibernateReferencedTable = hibernateForeignKey.getReferencedTable();
-                    Table referencedTable = new Table().setName(hibernateReferencedTable.getName());
-                    referencedTable.setSchema(hibernateReferencedTable.getCatalog(), hibernateReferencedTable.getSchema());
-
-                    if (hibernateForeignKey.isCreationEnabled() && hibernateForeignKey.isPhysicalConstraint()) {
-                        ForeignKey fk = new ForeignKey();
-                        fk.setName(hibernateForeignKey.getName());
-                        fk.setPrimaryKeyTable(referencedTable);
-                        fk.setForeignKeyTable(currentTable);
-                        for (Column column : hibernateForeignKey.getColumns()) {
-                            fk.addForeignKeyColumn(new liquibase.structure.core.Column(column.getName()));
-                        }
-                        for (Column column : hibernateForeignKey.getReferencedColumns()) {
-                            fk.addPrimaryKeyColumn(new liquibase.structure.core.Column(column.getName()));
-                        }
-                        if (fk.getPrimaryKeyColumns() == null || fk.getPrimaryKeyColumns().isEmpty()) {
-                            for (Column column : hibernateReferencedTable.getPrimaryKey().getColumns()) {
-                                fk.addPrimaryKeyColumn(new liquibase.structure.core.Column(column.getName()));
-                            }
-                        }
-
-                        fk.setDeferrable(false);
-                        fk.setInitiallyDeferred(false);
-
-//			Index index = new Index();
-//			index.setName("IX_" + fk.getName());
-//			index.setTable(fk.getForeignKeyTable());
-//			index.setColumns(fk.getForeignKeyColumns());
-//			fk.setBackingIndex(index);
-//			table.getIndexes().add(index);
-
-                        if (DatabaseObjectComparatorFactory.getInstance().isSameObject(currentTable, table, null, database)) {
-                            table.getOutgoingForeignKeys().add(fk);
-                            table.getSchema().addDatabaseObject(fk);
-                        }
+            var hibernateTable = findHibernateTable(table, snapshot);
+            if (hibernateTable == null) {
+                return;
+            }
+            var database = (HibernateDatabase) snapshot.getDatabase();
+            List<List<String>> indexedColumns = database.addsIndexesForForeignKeys() && snapshot.getSnapshotControl().shouldInclude(Index.class)
+                    ? getIndexedColumns(hibernateTable) : null;
+            int backingIndexCount = 0;
+            for (var hibernateForeignKey : hibernateTable.foreignKeys()) {
+                Table currentTable = new Table().setName(hibernateTable.name());
+                currentTable.setSchema(hibernateTable.catalog(), hibernateTable.schema());
+
+                Table referencedTable = new Table().setName(hibernateForeignKey.referencedTable());
+                referencedTable.setSchema(hibernateForeignKey.referencedCatalog(), hibernateForeignKey.referencedSchema());
+
+                ForeignKey fk = new ForeignKey();
+                fk.setName(hibernateForeignKey.name());
+                fk.setPrimaryKeyTable(referencedTable);
+                fk.setForeignKeyTable(currentTable);
+                for (String column : hibernateForeignKey.columns()) {
+                    fk.addForeignKeyColumn(new Column(column));
+                }
+                for (String column : hibernateForeignKey.referencedColumns()) {
+                    fk.addPrimaryKeyColumn(new Column(column));
+                }
+
+                fk.setDeferrable(false);
+                fk.setInitiallyDeferred(false);
+
+                if (indexedColumns != null && !isCovered(hibernateForeignKey.columns(), indexedColumns)) {
+                    Index index = new Index();
+                    index.setName(getBackingIndexName(hibernateTable.name(), fk.getName(), hibernateForeignKey.columns()));
+                    index.setRelation(table);
+                    for (String column : hibernateForeignKey.columns()) {
+                        index.getColumns().add(new Column(column).setRelation(table));
                     }
+                    table.getIndexes().add(index);
+                    indexedColumns.add(hibernateForeignKey.columns());
+                    backingIndexCount++;
                 }
+
+                table.getOutgoingForeignKeys().add(fk);
+                table.getSchema().addDatabaseObject(fk);
+            }
+            countSnapshotObjects(snapshot, ForeignKey.class, hibernateTable.foreignKeys().size());
+            if (backingIndexCount > 0) {
+                countSnapshotObjects(snapshot, Index.class, backingIndexCount);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code IX_} followed by the foreign key name, or by the table and column names if the foreign key has none.
+     * Names longer than {@value #MAX_INDEX_NAME_LENGTH} characters are replaced by the hashed name unique constraints give their backing index,
+     * with the table name cut so that name fits as well.
+     */
+    private static String getBackingIndexName(String tableName, String foreignKeyName, List<String> columns) {
+        String name = "IX_" + (foreignKeyName == null ? tableName + "_" + String.join("_", columns) : foreignKeyName);
+        if (name.length() <= MAX_INDEX_NAME_LENGTH) {
+            return name;
+        }
+        return UniqueConstraintSnapshotGenerator.hashedIndexName(tableName, String.join(", ", columns), MAX_INDEX_NAME_LENGTH);
+    }
+
+    /**
+     * Returns the column lists of the primary key, the unique keys, the unique columns and the indexes of the table.
+     */
+    private static List<List<String>> getIndexedColumns(HibernateRelationalModel.Table hibernateTable) {
+        List<List<String>> indexedColumns = new ArrayList<>();
+        if (hibernateTable.primaryKeyColumns() != null) {
+            indexedColumns.add(hibernateTable.primaryKeyColumns());
+        }
+        for (var uniqueKey : hibernateTable.uniqueKeys()) {
+            indexedColumns.add(uniqueKey.columns());
+        }
+        for (var column : hibernateTable.columns()) {
+            if (column.unique()) {
+                indexedColumns.add(List.of(column.name()));
+            }
+        }
+        for (var index : hibernateTable.indexes()) {
+            List<String> columns = new ArrayList<>(index.columns().size());
+            for (var column : index.columns()) {
+                columns.add(column.name());
             }
+            indexedColumns.add(columns);
+        }
+        return indexedColumns;
+    }
+
+    /**
+     * Returns true if the foreign key columns, in any order, are the leading columns of one of the indexed column lists,
+     * so an index on them already serves lookups by the foreign key.
+     */
+    private static boolean isCovered(List<String> foreignKeyColumns, List<List<String>> indexedColumns) {
+        Set<String> columns = normalize(foreignKeyColumns);
+        for (List<String> indexed : indexedColumns) {
+            if (indexed.size() >= columns.size() && normalize(indexed.subList(0, columns.size())).equals(columns)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> normalize(List<String> columnNames) {
+        Set<String> normalized = new HashSet<>();
+        for (String columnName : columnNames) {
+            normalized.add(columnName.toLowerCase(Locale.ROOT));
         }
+        return normalized;
     }
 
     @Override
@@ -3,15 +3,25 @@ package liquibase.ext.hibernate.snapshot;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.jfr.SnapshotGeneratorEvent;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGenerator;
 import liquibase.snapshot.SnapshotGeneratorChain;
 import liquibase.structure.DatabaseObject;
-import org.hibernate.boot.spi.MetadataImplementor;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.UniqueConstraint;
 
 /**
- * Base class for all Hibernate SnapshotGenerators
+ * Base class for all Hibernate SnapshotGenerators.
+ * Every {@link #snapshotObject} and {@link #addTo} call is timed in the database's {@link HibernateDatabase#getTimings() timings}
+ * and {@link HibernateSnapshotStats}, and recorded as a {@link SnapshotGeneratorEvent}.
+ * Subclasses count the objects they produce with {@link #countSnapshotObjects}.
  */
 public abstract class HibernateSnapshotGenerator implements SnapshotGenerator {
 
@@ -20,6 +30,9 @@ public abstract class HibernateSnapshotGenerator implements SnapshotGenerator {
 
     private Class<? extends DatabaseObject> defaultFor = null;
     private Class<? extends DatabaseObject>[] addsTo = null;
+    private final String name = getClass().getSimpleName().isEmpty() ? getClass().getName() : getClass().getSimpleName();
+    private final String snapshotObjectSection = name + " snapshotObject";
+    private final String addToSection = name + " addTo";
 
     protected HibernateSnapshotGenerator(Class<? extends DatabaseObject> defaultFor) {
         this.defaultFor = defaultFor;
@@ -61,8 +74,14 @@ public abstract class HibernateSnapshotGenerator implements SnapshotGenerator {
     @Override
     public final DatabaseObject snapshot(DatabaseObject example, DatabaseSnapshot snapshot, SnapshotGeneratorChain chain) throws DatabaseException, InvalidExampleException {
         if (defaultFor != null && defaultFor.isAssignableFrom(example.getClass())) {
-            DatabaseObject result = snapshotObject(example, snapshot);
-            return result;
+            SnapshotGeneratorEvent event = new SnapshotGeneratorEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try {
+                return snapshotObject(example, snapshot);
+            } finally {
+                record(snapshotObjectSection, "snapshotObject", example, snapshot, event, start);
+            }
         }
         DatabaseObject chainResponse = chain.snapshot(example, snapshot);
         if (chainResponse == null) {
@@ -71,7 +90,14 @@ public abstract class HibernateSnapshotGenerator implements SnapshotGenerator {
         if (addsTo() != null) {
             for (Class<? extends DatabaseObject> addType : addsTo()) {
                 if (addType.isAssignableFrom(example.getClass())) {
-                    addTo(chainResponse, snapshot);
+                    SnapshotGeneratorEvent event = new SnapshotGeneratorEvent();
+                    event.begin();
+                    long start = System.nanoTime();
+                    try {
+                        addTo(chainResponse, snapshot);
+                    } finally {
+                        record(addToSection, "addTo", chainResponse, snapshot, event, start);
+                    }
                 }
             }
         }
@@ -79,21 +105,64 @@ public abstract class HibernateSnapshotGenerator implements SnapshotGenerator {
 
     }
 
+    private void record(String section, String operation, DatabaseObject object, DatabaseSnapshot snapshot, SnapshotGeneratorEvent event, long start) {
+        long nanos = System.nanoTime() - start;
+        if (snapshot.getDatabase() instanceof HibernateDatabase database) {
+            database.getTimings().record(section, nanos);
+            database.getSnapshotStats().addGeneratorTime(name, nanos);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.generator = name;
+            event.operation = operation;
+            event.objectType = object.getClass().getSimpleName();
+            event.objectName = object.getName();
+            event.table = getTableName(object);
+            event.commit();
+        }
+    }
+
+    private static String getTableName(DatabaseObject object) {
+        Relation relation = null;
+        if (object instanceof Relation) {
+            relation = (Relation) object;
+        } else if (object instanceof Column column) {
+            relation = column.getRelation();
+        } else if (object instanceof Index index) {
+            relation = index.getRelation();
+        } else if (object instanceof PrimaryKey primaryKey) {
+            relation = primaryKey.getTable();
+        } else if (object instanceof ForeignKey foreignKey) {
+            relation = foreignKey.getForeignKeyTable();
+        } else if (object instanceof UniqueConstraint uniqueConstraint) {
+            relation = uniqueConstraint.getRelation();
+        }
+        return relation == null ? null : relation.getName();
+    }
+
     protected abstract DatabaseObject snapshotObject(DatabaseObject example, DatabaseSnapshot snapshot) throws DatabaseException, InvalidExampleException;
 
     protected abstract void addTo(DatabaseObject foundObject, DatabaseSnapshot snapshot) throws DatabaseException, InvalidExampleException;
 
-    protected org.hibernate.mapping.Table findHibernateTable(DatabaseObject example, DatabaseSnapshot snapshot) {
-        var database = (HibernateDatabase) snapshot.getDatabase();
-        var metadata = (MetadataImplementor) database.getMetadata();
+    /**
+     * Adds objects produced from the hibernate model to the database's {@link HibernateSnapshotStats}.
+     */
+    protected void countSnapshotObjects(DatabaseSnapshot snapshot, Class<? extends DatabaseObject> type, int count) {
+        if (count > 0 && snapshot.getDatabase() instanceof HibernateDatabase database) {
+            database.getSnapshotStats().count(type, count);
+        }
+    }
 
-        var tmapp = metadata.collectTableMappings();
+    /**
+     * Returns the table of the hibernate model matching the given example, or null if the model does not contain it.
+     */
+    protected HibernateRelationalModel.Table findHibernateTable(DatabaseObject example, DatabaseSnapshot snapshot) {
+        var database = (HibernateDatabase) snapshot.getDatabase();
+        var schema = example.getSchema();
 
-        for (var hibernateTable : tmapp) {
-            if (hibernateTable.getName().equalsIgnoreCase(example.getName())) {
-                return hibernateTable;
-            }
-        }
-        return null;
+        return database.getRelationalModel().findTable(
+                schema == null ? null : schema.getCatalogName(),
+                schema == null ? null : schema.getName(),
+                example.getName());
     }
 }
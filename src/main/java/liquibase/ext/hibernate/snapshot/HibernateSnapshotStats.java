@@ -0,0 +1,98 @@
+package liquibase.ext.hibernate.snapshot;
+
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Sequence;
+import liquibase.structure.core.Table;
+import liquibase.structure.core.UniqueConstraint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the snapshot generators produced from the hibernate model: the number of objects of each type and the time each generator spent.
+ * It is filled in by {@link HibernateSnapshotGenerator} and its subclasses, is reachable through
+ * {@link liquibase.ext.hibernate.database.HibernateDatabase#getSnapshotStats()} and is logged as one line when the database is closed.
+ */
+public class HibernateSnapshotStats {
+
+    private static final Map<Class<? extends DatabaseObject>, String> TYPE_NAMES = new LinkedHashMap<>();
+
+    static {
+        TYPE_NAMES.put(Table.class, "tables");
+        TYPE_NAMES.put(Column.class, "columns");
+        TYPE_NAMES.put(PrimaryKey.class, "primaryKeys");
+        TYPE_NAMES.put(ForeignKey.class, "foreignKeys");
+        TYPE_NAMES.put(Index.class, "indexes");
+        TYPE_NAMES.put(UniqueConstraint.class, "uniqueConstraints");
+        TYPE_NAMES.put(Sequence.class, "sequences");
+    }
+
+    private final Map<Class<? extends DatabaseObject>, Long> counts = new LinkedHashMap<>();
+    private final Map<String, Long> generatorNanos = new LinkedHashMap<>();
+
+    /**
+     * Counts objects of the given type added to a snapshot.
+     */
+    public synchronized void count(Class<? extends DatabaseObject> type, int count) {
+        counts.merge(type, (long) count, Long::sum);
+    }
+
+    public synchronized long getCount(Class<? extends DatabaseObject> type) {
+        return counts.getOrDefault(type, 0L);
+    }
+
+    /**
+     * Adds time spent by the named generator in {@code snapshotObject} or {@code addTo}.
+     */
+    public synchronized void addGeneratorTime(String generator, long nanos) {
+        generatorNanos.merge(generator, nanos, Long::sum);
+    }
+
+    /**
+     * Returns the time each generator spent so far, in nanoseconds, in the order the generators first ran.
+     */
+    public synchronized Map<String, Long> getGeneratorNanos() {
+        return new LinkedHashMap<>(generatorNanos);
+    }
+
+    public synchronized boolean isEmpty() {
+        return counts.isEmpty() && generatorNanos.isEmpty();
+    }
+
+    public synchronized void clear() {
+        counts.clear();
+        generatorNanos.clear();
+    }
+
+    /**
+     * Returns the statistics as space separated {@code key=value} pairs, such as
+     * {@code tables=12 columns=80 ... timeMs.TableSnapshotGenerator=4}, for a single structured log line.
+     */
+    public synchronized String toLogLine() {
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<Class<? extends DatabaseObject>, String> type : TYPE_NAMES.entrySet()) {
+            append(line, type.getValue(), getCount(type.getKey()));
+        }
+        for (Map.Entry<Class<? extends DatabaseObject>, Long> count : counts.entrySet()) {
+            if (!TYPE_NAMES.containsKey(count.getKey())) {
+                append(line, count.getKey().getSimpleName(), count.getValue());
+            }
+        }
+        for (Map.Entry<String, Long> time : generatorNanos.entrySet()) {
+            append(line, "timeMs." + time.getKey(), TimeUnit.NANOSECONDS.toMillis(time.getValue()));
+        }
+        return line.toString();
+    }
+
+    private static void append(StringBuilder line, String key, long value) {
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(key).append('=').append(value);
+    }
+}
@@ -2,16 +2,21 @@ package liquibase.ext.hibernate.snapshot;
 
 import liquibase.Scope;
 import liquibase.exception.DatabaseException;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGenerator;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.*;
 
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public class IndexSnapshotGenerator extends HibernateSnapshotGenerator {
 
-    private static final String HIBERNATE_ORDER_ASC = "asc";
-    private static final String HIBERNATE_ORDER_DESC = "desc";
+    private static final String INDEXES_BY_COLUMNS = IndexSnapshotGenerator.class.getName() + ".indexesByColumns";
 
     @SuppressWarnings("unchecked")
     public IndexSnapshotGenerator() {
@@ -28,18 +33,42 @@ public class IndexSnapshotGenerator extends HibernateSnapshotGenerator {
         if (hibernateTable == null) {
             return example;
         }
-        for (var hibernateIndex : hibernateTable.getIndexes().values()) {
-            Index index = handleHibernateIndex(table, hibernateIndex);
-            if (index.getColumnNames().equalsIgnoreCase(((Index) example).getColumnNames())) {
-                Scope.getCurrentScope().getLog(getClass()).info("Found index " + index.getName());
-                table.getIndexes().add(index);
-                return index;
-            }
+        var hibernateIndex = getIndexesByColumns(hibernateTable, snapshot).get(normalizeColumnNames(((Index) example).getColumnNames()));
+        if (hibernateIndex == null) {
+            return example;
         }
-        return example;
+        Index index = handleHibernateIndex(table, hibernateIndex);
+        Scope.getCurrentScope().getLog(getClass()).fine("Found index " + index.getName());
+        table.getIndexes().add(index);
+        return index;
 
     }
 
+    /**
+     * Returns the indexes of the hibernate table keyed by their normalized column list, built once per table and snapshot.
+     * When several indexes have the same columns the first one wins, as it did when the indexes were searched in order.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, HibernateRelationalModel.Index> getIndexesByColumns(HibernateRelationalModel.Table hibernateTable, DatabaseSnapshot snapshot) {
+        var indexesByTable = (Map<HibernateRelationalModel.Table, Map<String, HibernateRelationalModel.Index>>) snapshot.getScratchData(INDEXES_BY_COLUMNS);
+        if (indexesByTable == null) {
+            indexesByTable = new IdentityHashMap<>();
+            snapshot.setScratchData(INDEXES_BY_COLUMNS, indexesByTable);
+        }
+        return indexesByTable.computeIfAbsent(hibernateTable, t -> {
+            Map<String, HibernateRelationalModel.Index> indexesByColumns = new HashMap<>();
+            for (var hibernateIndex : t.indexes()) {
+                // column names are rendered the same way liquibase renders them for the example
+                indexesByColumns.putIfAbsent(normalizeColumnNames(handleHibernateIndex(null, hibernateIndex).getColumnNames()), hibernateIndex);
+            }
+            return indexesByColumns;
+        });
+    }
+
+    private static String normalizeColumnNames(String columnNames) {
+        return columnNames == null ? "" : columnNames.toLowerCase(Locale.ROOT);
+    }
+
     @Override
     protected void addTo(DatabaseObject foundObject, DatabaseSnapshot snapshot) throws DatabaseException, InvalidExampleException {
         if (!snapshot.getSnapshotControl().shouldInclude(Index.class)) {
@@ -50,49 +79,26 @@ public class IndexSnapshotGenerator extends HibernateSnapshotGenerator {
             if (hibernateTable == null) {
                 return;
             }
-            for (var hibernateIndex : hibernateTable.getIndexes().values()) {
+            for (var hibernateIndex : hibernateTable.indexes()) {
                 var index = handleHibernateIndex(table, hibernateIndex);
-                Scope.getCurrentScope().getLog(getClass()).info("Found index " + index.getName());
+                Scope.getCurrentScope().getLog(getClass()).fine("Found index " + index.getName());
                 table.getIndexes().add(index);
             }
+            countSnapshotObjects(snapshot, Index.class, hibernateTable.indexes().size());
         }
     }
 
-    private Index handleHibernateIndex(Relation table, org.hibernate.mapping.Index hibernateIndex) {
+    private Index handleHibernateIndex(Relation table, HibernateRelationalModel.Index hibernateIndex) {
         Index index = new Index();
         index.setRelation(table);
-        index.setName(hibernateIndex.getName());
-        index.setUnique(isUniqueIndex(hibernateIndex));
-        for (var selectable : hibernateIndex.getSelectables()) {
-            org.hibernate.mapping.Column hibernateColumn = (org.hibernate.mapping.Column) selectable;
-            String hibernateOrder = hibernateIndex.getSelectableOrderMap().get(hibernateColumn);
-            Boolean descending = HIBERNATE_ORDER_ASC.equals(hibernateOrder)
-                ? Boolean.FALSE
-                : (HIBERNATE_ORDER_DESC.equals(hibernateOrder) ? Boolean.TRUE : null);
-            index.getColumns().add(new Column(hibernateColumn.getName()).setRelation(table).setDescending(descending));
+        index.setName(hibernateIndex.name());
+        index.setUnique(hibernateIndex.unique());
+        for (var hibernateColumn : hibernateIndex.columns()) {
+            index.getColumns().add(new Column(hibernateColumn.name()).setRelation(table).setDescending(hibernateColumn.descending()));
         }
         return index;
     }
 
-    private Boolean isUniqueIndex(org.hibernate.mapping.Index hibernateIndex) {
-        /*
-        This seems to be necessary to explicitly tell liquibase that there's no
-        actual diff in certain non-unique indexes
-        */
-        if (hibernateIndex.getColumnSpan() == 1) {
-            var col = ((org.hibernate.mapping.Column) hibernateIndex.getSelectables().get(0));
-            return col.isUnique();
-        } else {
-            /*
-            It seems that because Hibernate does not implement the unique property of the Jpa composite index,
-            the diff command appears 'difference', because the unique property of the entity index is 'null',
-            and the value read from the database is 'false', resulting in the generated changeSet after the Drop and
-            Recreate Index.
-            */
-            return false;
-        }
-    }
-
     @Override
     public Class<? extends SnapshotGenerator>[] replaces() {
         return new Class[]{liquibase.snapshot.jvm.IndexSnapshotGenerator.class};
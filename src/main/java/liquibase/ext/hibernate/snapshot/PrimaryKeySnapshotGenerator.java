@@ -37,10 +37,10 @@ public class PrimaryKeySnapshotGenerator extends HibernateSnapshotGenerator {
             if (hibernateTable == null) {
                 return;
             }
-            var hibernatePrimaryKey = hibernateTable.getPrimaryKey();
-            if (hibernatePrimaryKey != null) {
+            var hibernatePrimaryKeyColumns = hibernateTable.primaryKeyColumns();
+            if (hibernatePrimaryKeyColumns != null) {
                 var pk = new PrimaryKey();
-                String hbnTableName = hibernateTable.getName();
+                String hbnTableName = hibernateTable.name();
 
                 String pkName = PK_NAME_ALIAS.toAliasString(hbnTableName);
                 if (pkName.length() == PK_NAME_LENGTH) {
@@ -50,11 +50,12 @@ public class PrimaryKeySnapshotGenerator extends HibernateSnapshotGenerator {
                 pk.setName(pkName);
 
                 pk.setTable(table);
-                for (org.hibernate.mapping.Column hibernateColumn : hibernatePrimaryKey.getColumns()) {
-                    pk.getColumns().add(new Column(hibernateColumn.getName()).setRelation(table));
+                for (String hibernateColumn : hibernatePrimaryKeyColumns) {
+                    pk.getColumns().add(new Column(hibernateColumn).setRelation(table));
                 }
 
-                Scope.getCurrentScope().getLog(getClass()).info("Found primary key " + pk.getName());
+                Scope.getCurrentScope().getLog(getClass()).fine("Found primary key " + pk.getName());
+                countSnapshotObjects(snapshot, PrimaryKey.class, 1);
                 table.setPrimaryKey(pk);
                 Index index = new Index();
                 index.setName("IX_" + pk.getName());
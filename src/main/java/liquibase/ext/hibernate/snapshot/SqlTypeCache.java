@@ -0,0 +1,172 @@
+package liquibase.ext.hibernate.snapshot;
+
+import liquibase.exception.DatabaseException;
+import liquibase.structure.core.DataType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of parsed Hibernate SQL type strings, keyed by the SQL type string, the JDBC type code, the dialect and the class of the parser.
+ * A mapping typically has many columns but only a few dozen distinct type strings, so the regex work in
+ * {@link ColumnSnapshotGenerator#toDataType(String, Integer)} only has to be done once per distinct type.
+ * Cached {@link DataType}s are never handed out directly; every lookup returns a copy.
+ */
+public final class SqlTypeCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final Pattern DEFAULT_VALUE_PATTERN = Pattern.compile("(?i) DEFAULT\\s+(.*)");
+
+    private final int maxSize;
+    private final Map<Key, ParsedSqlType> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SqlTypeCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public SqlTypeCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ParsedSqlType> eldest) {
+                return size() > SqlTypeCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed form of the given SQL type, parsing it with the given parser on a cache miss.
+     */
+    public ParsedSqlType get(String sqlType, Integer sqlTypeCode, String dialectName, Parser parser) throws DatabaseException {
+        return get(sqlType, sqlTypeCode, dialectName, null, parser);
+    }
+
+    /**
+     * Returns the parsed form of the given SQL type, parsing it with the given parser on a cache miss.
+     * Entries are only shared between parsers of the same {@code parserType}, so a subclass that parses types differently
+     * never sees the results of its superclass.
+     */
+    public ParsedSqlType get(String sqlType, Integer sqlTypeCode, String dialectName, Class<?> parserType, Parser parser) throws DatabaseException {
+        Key key = new Key(sqlType, sqlTypeCode, dialectName, parserType);
+        ParsedSqlType parsed;
+        synchronized (entries) {
+            parsed = entries.get(key);
+        }
+        if (parsed != null) {
+            hits.incrementAndGet();
+            return parsed;
+        }
+        misses.incrementAndGet();
+
+        String defaultValue = null;
+        String typeWithoutDefault = sqlType;
+        Matcher defaultValueMatcher = DEFAULT_VALUE_PATTERN.matcher(sqlType);
+        if (defaultValueMatcher.find()) {
+            defaultValue = defaultValueMatcher.group(1);
+            typeWithoutDefault = sqlType.replace(defaultValueMatcher.group(0), "");
+        }
+        DataType dataType = parser.parse(typeWithoutDefault, sqlTypeCode);
+        parsed = new ParsedSqlType(typeWithoutDefault, defaultValue, dataType);
+
+        synchronized (entries) {
+            entries.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Removes all entries and resets the hit and miss counters.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "SqlTypeCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "}";
+    }
+
+    /**
+     * Parses a SQL type string that has already had any DEFAULT clause removed.
+     */
+    @FunctionalInterface
+    public interface Parser {
+        DataType parse(String sqlType, Integer sqlTypeCode) throws DatabaseException;
+    }
+
+    /**
+     * The result of parsing a SQL type string: the type without its DEFAULT clause, the default value from that clause (if any) and the data type.
+     */
+    public static final class ParsedSqlType {
+
+        private final String sqlType;
+        private final String defaultValue;
+        private final DataType dataType;
+
+        private ParsedSqlType(String sqlType, String defaultValue, DataType dataType) {
+            this.sqlType = sqlType;
+            this.defaultValue = defaultValue;
+            this.dataType = dataType;
+        }
+
+        public String getSqlType() {
+            return sqlType;
+        }
+
+        public String getDefaultValue() {
+            return defaultValue;
+        }
+
+        /**
+         * Returns a fresh copy of the parsed data type, or null if the type could not be parsed.
+         */
+        public DataType getDataType() {
+            if (dataType == null) {
+                return null;
+            }
+            DataType copy = new DataType(dataType.getTypeName());
+            copy.setDataTypeId(dataType.getDataTypeId());
+            copy.setColumnSize(dataType.getColumnSize());
+            copy.setColumnSizeUnit(dataType.getColumnSizeUnit());
+            copy.setDecimalDigits(dataType.getDecimalDigits());
+            copy.setRadix(dataType.getRadix());
+            copy.setCharacterOctetLength(dataType.getCharacterOctetLength());
+            return copy;
+        }
+    }
+
+    private record Key(String sqlType, Integer sqlTypeCode, String dialectName, Class<?> parserType) {
+        private Key {
+            Objects.requireNonNull(sqlType, "sqlType");
+        }
+    }
+}
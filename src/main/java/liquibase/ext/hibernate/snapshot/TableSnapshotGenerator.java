@@ -3,15 +3,13 @@ package liquibase.ext.hibernate.snapshot;
 import liquibase.Scope;
 import liquibase.exception.DatabaseException;
 import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGenerator;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
-import org.hibernate.boot.model.relational.Namespace;
-import org.hibernate.boot.spi.MetadataImplementor;
-import org.hibernate.mapping.*;
 
 public class TableSnapshotGenerator extends HibernateSnapshotGenerator {
 
@@ -25,16 +23,16 @@ public class TableSnapshotGenerator extends HibernateSnapshotGenerator {
         if (example.getSnapshotId() != null) {
             return example;
         }
-        org.hibernate.mapping.Table hibernateTable = findHibernateTable(example, snapshot);
+        HibernateRelationalModel.Table hibernateTable = findHibernateTable(example, snapshot);
         if (hibernateTable == null) {
             return example;
         }
 
-        Table table = new Table().setName(hibernateTable.getName());
-        Scope.getCurrentScope().getLog(getClass()).info("Found table " + table.getName());
+        Table table = new Table().setName(hibernateTable.name());
+        Scope.getCurrentScope().getLog(getClass()).fine("Found table " + table.getName());
         table.setSchema(example.getSchema());
-        if (hibernateTable.getComment() != null && !hibernateTable.getComment().isEmpty()) {
-            table.setRemarks(hibernateTable.getComment());
+        if (hibernateTable.comment() != null && !hibernateTable.comment().isEmpty()) {
+            table.setRemarks(hibernateTable.comment());
         }
 
         return table;
@@ -49,34 +47,23 @@ public class TableSnapshotGenerator extends HibernateSnapshotGenerator {
         if (foundObject instanceof Schema schema) {
 
             var database = (HibernateDatabase) snapshot.getDatabase();
-            var metadata = (MetadataImplementor) database.getMetadata();
 
             // Hibernate 7: GenerationType.TABLE tables are not visible via getEntityBindings(),
-            // so we retrieve tables from namespaces instead.
-            for (Namespace namespace : metadata.getDatabase().getNamespaces()) {
-                for (org.hibernate.mapping.Table hibernateTable : namespace.getTables()) {
-                    if (hibernateTable.isPhysicalTable()) {
-                        addDatabaseObjectToSchema(hibernateTable, schema, snapshot);
-                        for (ForeignKey fk : hibernateTable.getForeignKeyCollection()) {
-                            addDatabaseObjectToSchema(fk.getTable(), schema, snapshot);
-                        }
-                    }
-                }
-            }
-
-            for (org.hibernate.mapping.Collection coll : metadata.getCollectionBindings()) {
-                org.hibernate.mapping.Table hTable = coll.getCollectionTable();
-                if (hTable.isPhysicalTable()) {
-                    addDatabaseObjectToSchema(hTable, schema, snapshot);
+            // so the model is built from the namespaces, which include collection tables as well.
+            int tableCount = 0;
+            for (HibernateRelationalModel.Table hibernateTable : database.getRelationalModel().getTables()) {
+                if (hibernateTable.physical()) {
+                    addDatabaseObjectToSchema(hibernateTable, schema, snapshot);
+                    tableCount++;
                 }
             }
+            countSnapshotObjects(snapshot, Table.class, tableCount);
         }
     }
 
-    private void addDatabaseObjectToSchema(org.hibernate.mapping.Table join, Schema schema, DatabaseSnapshot snapshot) throws DatabaseException, InvalidExampleException {
-        Table joinTable = new Table().setName(join.getName());
+    private void addDatabaseObjectToSchema(HibernateRelationalModel.Table join, Schema schema, DatabaseSnapshot snapshot) throws DatabaseException, InvalidExampleException {
+        Table joinTable = new Table().setName(join.name());
         joinTable.setSchema(schema);
-        Scope.getCurrentScope().getLog(getClass()).info("Found table " + joinTable.getName());
         schema.addDatabaseObject(snapshotObject(joinTable, snapshot));
     }
 
@@ -2,6 +2,7 @@ package liquibase.ext.hibernate.snapshot;
 
 import liquibase.Scope;
 import liquibase.exception.DatabaseException;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGenerator;
@@ -10,12 +11,12 @@ import liquibase.structure.core.Column;
 import liquibase.structure.core.Index;
 import liquibase.structure.core.Table;
 import liquibase.structure.core.UniqueConstraint;
-import liquibase.util.StringUtil;
 import org.hibernate.HibernateException;
 
 import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
 
 public class UniqueConstraintSnapshotGenerator extends HibernateSnapshotGenerator {
 
@@ -39,36 +40,38 @@ public class UniqueConstraintSnapshotGenerator extends HibernateSnapshotGenerato
             if (hibernateTable == null) {
                 return;
             }
-            for (var hibernateUnique : hibernateTable.getUniqueKeys().values()) {
+            for (var hibernateUnique : hibernateTable.uniqueKeys()) {
                 var uniqueConstraint = new UniqueConstraint();
-                uniqueConstraint.setName(hibernateUnique.getName());
+                uniqueConstraint.setName(hibernateUnique.name());
                 uniqueConstraint.setRelation(table);
                 uniqueConstraint.setClustered(false); // No way to set true via Hibernate
 
                 int i = 0;
-                for (var hibernateColumn : hibernateUnique.getColumns()) {
-                    uniqueConstraint.addColumn(i++, new Column(hibernateColumn.getName()).setRelation(table));
+                for (var hibernateColumn : hibernateUnique.columns()) {
+                    uniqueConstraint.addColumn(i++, new Column(hibernateColumn).setRelation(table));
                 }
 
                 Index index = getBackingIndex(uniqueConstraint, hibernateTable, snapshot);
                 uniqueConstraint.setBackingIndex(index);
 
-                Scope.getCurrentScope().getLog(getClass()).info("Found unique constraint " + uniqueConstraint);
+                Scope.getCurrentScope().getLog(getClass()).fine("Found unique constraint " + uniqueConstraint);
                 table.getUniqueConstraints().add(uniqueConstraint);
+                countSnapshotObjects(snapshot, UniqueConstraint.class, 1);
             }
-            for (var column : hibernateTable.getColumns()) {
-                if (column.isUnique()) {
+            for (var column : hibernateTable.columns()) {
+                if (column.unique()) {
                     UniqueConstraint uniqueConstraint = new UniqueConstraint();
                     uniqueConstraint.setRelation(table);
                     uniqueConstraint.setClustered(false); // No way to set true via Hibernate
-                    String name = "UC_" + table.getName().toUpperCase() + column.getName().toUpperCase() + "_COL";
+                    String name = "UC_" + table.getName().toUpperCase() + column.name().toUpperCase() + "_COL";
                     if (name.length() > 64) {
                         name = name.substring(0, 63);
                     }
-                    uniqueConstraint.addColumn(0, new Column(column.getName()).setRelation(table));
+                    uniqueConstraint.addColumn(0, new Column(column.name()).setRelation(table));
                     uniqueConstraint.setName(name);
-                    Scope.getCurrentScope().getLog(getClass()).info("Found unique constraint " + uniqueConstraint);
+                    Scope.getCurrentScope().getLog(getClass()).fine("Found unique constraint " + uniqueConstraint);
                     table.getUniqueConstraints().add(uniqueConstraint);
+                    countSnapshotObjects(snapshot, UniqueConstraint.class, 1);
 
                     Index index = getBackingIndex(uniqueConstraint, hibernateTable, snapshot);
                     uniqueConstraint.setBackingIndex(index);
@@ -86,7 +89,7 @@ public class UniqueConstraintSnapshotGenerator extends HibernateSnapshotGenerato
         }
     }
 
-    private String hashedName(String s) {
+    static String hashedName(String s) {
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
             md.reset();
@@ -102,16 +105,37 @@ public class UniqueConstraintSnapshotGenerator extends HibernateSnapshotGenerato
         }
     }
 
-    protected Index getBackingIndex(UniqueConstraint uniqueConstraint, org.hibernate.mapping.Table hibernateTable, DatabaseSnapshot snapshot) {
+    /**
+     * Creates the unique index backing the constraint. Its name is derived from the table and column names,
+     * so snapshots of an unchanged model are identical.
+     */
+    protected Index getBackingIndex(UniqueConstraint uniqueConstraint, HibernateRelationalModel.Table hibernateTable, DatabaseSnapshot snapshot) {
         Index index = new Index();
         index.setRelation(uniqueConstraint.getRelation());
         index.setColumns(uniqueConstraint.getColumns());
         index.setUnique(true);
-        index.setName(String.format("%s_%s_IX",hibernateTable.getName(), StringUtil.randomIdentifier(4)));
+        index.setName(hashedIndexName(hibernateTable.name(), uniqueConstraint.getColumnNames()));
 
         return index;
     }
 
+    /**
+     * Returns the name of an index on the given columns of the table: the table name and a short hash of the table and column names.
+     */
+    static String hashedIndexName(String tableName, String columnNames) {
+        return hashedIndexName(tableName, columnNames, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the {@link #hashedIndexName(String, String) hashed index name}, with the table name cut so the whole name is at most {@code maxLength} characters.
+     * The hash is still computed over the full table name.
+     */
+    static String hashedIndexName(String tableName, String columnNames, int maxLength) {
+        String hash = hashedName((tableName + "." + columnNames).toLowerCase(Locale.ROOT));
+        String suffix = String.format("_%s_IX", hash.substring(0, Math.min(4, hash.length())));
+        return tableName.substring(0, Math.max(0, Math.min(tableName.length(), maxLength - suffix.length()))) + suffix;
+    }
+
     @Override
     public Class<? extends SnapshotGenerator>[] replaces() {
         return new Class[]{ liquibase.snapshot.jvm.UniqueConstraintSnapshotGenerator.class };
@@ -0,0 +1,37 @@
+package com.example.foreignkeyindex;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Entity with a foreign key leading a unique key, one leading an index and one with a name too long for its backing index.
+ */
+@Getter
+@Setter
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "UK_BOOK_SHELF_POSITION", columnNames = {"shelf_id", "position"}),
+        indexes = @Index(name = "IX_BOOK_ARCHIVE_TITLE", columnList = "archive_shelf_id, title"))
+public class Book {
+
+    @Id
+    private long id;
+
+    @Column
+    private String title;
+
+    @Column
+    private int position;
+
+    @ManyToOne
+    @JoinColumn(name = "shelf_id", foreignKey = @ForeignKey(name = "FK_BOOK_SHELF"))
+    private Shelf shelf;
+
+    @ManyToOne
+    @JoinColumn(name = "archive_shelf_id", foreignKey = @ForeignKey(name = "FK_BOOK_ARCHIVE_SHELF"))
+    private Shelf archiveShelf;
+
+    @ManyToOne
+    @JoinColumn(name = "previous_edition_id", foreignKey = @ForeignKey(name = "FK_BOOK_PREVIOUS_EDITION_OF_THE_SAME_TITLE"))
+    private Book previousEdition;
+}
@@ -0,0 +1,22 @@
+package com.example.foreignkeyindex;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Entity whose table name alone is longer than the backing index names may be.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "LIBRARY_BOOK_LENDING_HISTORY_ENTRY")
+public class LendingHistoryEntry {
+
+    @Id
+    private long id;
+
+    @ManyToOne
+    @JoinColumn(name = "book_id", foreignKey = @ForeignKey(name = "FK_LENDING_HISTORY_ENTRY_BOOK"))
+    private Book book;
+}
@@ -0,0 +1,17 @@
+package com.example.foreignkeyindex;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+public class Shelf {
+
+    @Id
+    private long id;
+
+    @Column
+    private String label;
+}
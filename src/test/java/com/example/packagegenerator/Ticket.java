@@ -0,0 +1,21 @@
+package com.example.packagegenerator;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Entity whose id generator is defined in the package-info of its package.
+ */
+@Getter
+@Setter
+@Entity
+public class Ticket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    private long id;
+
+    @Column
+    private String code;
+}
@@ -0,0 +1,4 @@
+@SequenceGenerator(name = "ticket_seq", sequenceName = "TICKET_SEQ", allocationSize = 5)
+package com.example.packagegenerator;
+
+import jakarta.persistence.SequenceGenerator;
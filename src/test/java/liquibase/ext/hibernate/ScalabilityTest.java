@@ -0,0 +1,164 @@
+package liquibase.ext.hibernate;
+
+import liquibase.CatalogAndSchema;
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModelGenerator;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Table;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Snapshots synthetic models of increasing size and diffs them against an empty in-memory H2 database.
+ * Each size must stay within a wall-clock and a retained-heap budget per entity, and the growth from one size to the next
+ * must stay close to linear: a growth exponent above the {@value #MAX_GROWTH_EXPONENT_PROPERTY} limit, 1.35 by default, fails,
+ * so quadratic paths in the snapshot generators are caught even on a machine fast enough to meet the budgets.
+ */
+@Category(ScalabilityTests.class)
+public class ScalabilityTest {
+
+    private static final String SIZES_PROPERTY = "liquibase.hibernate.scalability.sizes";
+    private static final String MILLIS_PER_ENTITY_PROPERTY = "liquibase.hibernate.scalability.millisPerEntity";
+    private static final String BYTES_PER_ENTITY_PROPERTY = "liquibase.hibernate.scalability.bytesPerEntity";
+    private static final String MAX_GROWTH_EXPONENT_PROPERTY = "liquibase.hibernate.scalability.maxGrowthExponent";
+
+    private static final Path MODEL_DIRECTORY = Paths.get("target/synthetic-models");
+
+    @Test
+    public void snapshotAndDiffScaleLinearly() throws Exception {
+        int[] sizes = Arrays.stream(System.getProperty(SIZES_PROPERTY, "1000,5000,10000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .toArray();
+        double millisPerEntity = Double.parseDouble(System.getProperty(MILLIS_PER_ENTITY_PROPERTY, "20"));
+        long bytesPerEntity = Long.parseLong(System.getProperty(BYTES_PER_ENTITY_PROPERTY, "65536"));
+        double maxGrowthExponent = Double.parseDouble(System.getProperty(MAX_GROWTH_EXPONENT_PROPERTY, "1.35"));
+
+        // warm up class loading and the JIT so the smallest size is not measured cold
+        measure(new SyntheticModelGenerator().entities(200));
+
+        List<Measurement> measurements = new ArrayList<>();
+        for (int size : sizes) {
+            measurements.add(measure(new SyntheticModelGenerator().entities(size)));
+        }
+
+        StringBuilder report = new StringBuilder("Scalability of snapshot and diff:\n")
+                .append(String.format(Locale.ROOT, "%8s %8s %10s %10s %10s %10s %12s %8s %8s%n",
+                        "entities", "tables", "open ms", "snap ms", "diff ms", "total ms", "retained KB", "time^", "heap^"));
+        for (int i = 0; i < measurements.size(); i++) {
+            Measurement measurement = measurements.get(i);
+            Measurement previous = i == 0 ? null : measurements.get(i - 1);
+            report.append(String.format(Locale.ROOT, "%8d %8d %10d %10d %10d %10d %12d %8s %8s%n",
+                    measurement.entities(), measurement.tables(), measurement.openMillis(), measurement.snapshotMillis(), measurement.diffMillis(),
+                    measurement.totalMillis(), measurement.retainedBytes() / 1024,
+                    previous == null ? "" : String.format(Locale.ROOT, "%.2f", measurement.timeExponent(previous)),
+                    previous == null ? "" : String.format(Locale.ROOT, "%.2f", measurement.heapExponent(previous))));
+        }
+        Scope.getCurrentScope().getLog(getClass()).info(report.toString());
+
+        for (int i = 0; i < measurements.size(); i++) {
+            Measurement measurement = measurements.get(i);
+            assertTrue(measurement.entities() + " entities took " + measurement.totalMillis() + "ms\n" + report,
+                    measurement.totalMillis() <= measurement.entities() * millisPerEntity);
+            assertTrue(measurement.entities() + " entities retained " + measurement.retainedBytes() + " bytes\n" + report,
+                    measurement.retainedBytes() <= measurement.entities() * bytesPerEntity);
+            if (i > 0) {
+                Measurement previous = measurements.get(i - 1);
+                assertTrue("Time grows superlinearly from " + previous.entities() + " to " + measurement.entities() + " entities\n" + report,
+                        measurement.timeExponent(previous) <= maxGrowthExponent);
+                assertTrue("Heap grows superlinearly from " + previous.entities() + " to " + measurement.entities() + " entities\n" + report,
+                        measurement.heapExponent(previous) <= maxGrowthExponent);
+            }
+        }
+    }
+
+    private Measurement measure(SyntheticModelGenerator generator) throws Exception {
+        try (SyntheticModel model = generator.generate(MODEL_DIRECTORY)) {
+            long heapBefore = usedHeapAfterGc();
+
+            long start = System.nanoTime();
+            HibernateDatabase hibernateDatabase = model.open(model.getUrl(SyntheticModel.Flavour.SPRING_PACKAGE, HibernateDatabase.RELEASE_METADATA_PROPERTY + "=true"));
+            long opened = System.nanoTime();
+            DatabaseSnapshot snapshot = model.run(() -> SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, hibernateDatabase, new SnapshotControl(hibernateDatabase)));
+            long snapshotted = System.nanoTime();
+
+            long retainedBytes = usedHeapAfterGc() - heapBefore;
+
+            Database h2Database = new H2Database();
+            h2Database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:scalability" + System.nanoTime(), "SA", "")));
+            try {
+                long diffStart = System.nanoTime();
+                DiffResult diffResult = model.run(() -> DiffGeneratorFactory.getInstance().compare(hibernateDatabase, h2Database, SyntheticModel.createCompareControl()));
+                long diffed = System.nanoTime();
+
+                assertEquals(model.getTableCount(), snapshot.get(Table.class).size());
+                assertEquals(model.getTableCount(), diffResult.getMissingObjects(Table.class).size());
+                assertFalse(diffResult.getMissingObjects(Column.class).isEmpty());
+
+                return new Measurement(model.getClassNames().size(), model.getTableCount(),
+                        TimeUnit.NANOSECONDS.toMillis(opened - start),
+                        TimeUnit.NANOSECONDS.toMillis(snapshotted - opened),
+                        TimeUnit.NANOSECONDS.toMillis(diffed - diffStart),
+                        Math.max(retainedBytes, 0));
+            } finally {
+                h2Database.close();
+                hibernateDatabase.close();
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private record Measurement(int entities, int tables, long openMillis, long snapshotMillis, long diffMillis, long retainedBytes) {
+
+        long totalMillis() {
+            return openMillis + snapshotMillis + diffMillis;
+        }
+
+        /**
+         * Returns k in time ~ entities^k between the previous measurement and this one: 1 is linear, 2 is quadratic.
+         */
+        double timeExponent(Measurement previous) {
+            return exponent(Math.max(previous.totalMillis(), 1), Math.max(totalMillis(), 1), previous);
+        }
+
+        double heapExponent(Measurement previous) {
+            return exponent(Math.max(previous.retainedBytes(), 1), Math.max(retainedBytes(), 1), previous);
+        }
+
+        private double exponent(double previousValue, double value, Measurement previous) {
+            return Math.log(value / previousValue) / Math.log((double) entities / previous.entities());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package liquibase.ext.hibernate;
+
+/**
+ * JUnit category of the tests that read very large synthetic models. They are excluded from the default build
+ * and run with the {@code scalability} profile: {@code mvn -Pscalability test}.
+ */
+public interface ScalabilityTests {
+}
@@ -87,6 +87,19 @@ public class HibernateClassicDatabaseTest {
         assertEquals("varchar", watcherTable.getColumn("name").getType().getTypeName());
     }
 
+    @Test
+    public void bootstrapOfPojoConfiguration() throws Exception {
+        String url = "hibernate:classic:com/example/pojo/Hibernate.cfg.xml";
+        HibernateDatabase database = (HibernateDatabase) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), url, null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        try {
+            assertNotNull(database.getMetadata().getEntityBinding("com.example.pojo.auction.Bid"));
+            assertNotNull(database.getMetadata().getEntityBinding("com.example.pojo.auction.Watcher"));
+            assertNotNull(database.getRelationalModel().findTable(null, null, "Bid"));
+        } finally {
+            database.close();
+        }
+    }
+
     public static void assertPojoHibernateMapped(DatabaseSnapshot snapshot) {
         // Hibernate 7 namespace-based table discovery may include extra tables (e.g. sequence tables
         // from <generator class="native"/>), so we use hasItem instead of containsInAnyOrder.
@@ -1,14 +1,92 @@
 package liquibase.ext.hibernate.database;
 
 import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.ext.hibernate.database.connection.HibernateConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.After;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.*;
 
 public class HibernateDatabaseTest {
 
+    private static final String CLASSIC_URL = "hibernate:classic:com/example/pojo/Hibernate.cfg.xml";
+
+    @After
+    public void tearDown() {
+        HibernateDatabase.setBootstrapExecutor(null);
+    }
+
     @Test
     public void getDefaultDriver() {
         assertEquals("liquibase.ext.hibernate.database.connection.HibernateDriver", DatabaseFactory.getInstance().findDefaultDriver("hibernate:ejb3:pers"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void bootstrapRunsOnConfiguredExecutor() throws Exception {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            threads.incrementAndGet();
+            return new Thread(runnable);
+        });
+        HibernateDatabase.setBootstrapExecutor(executor);
+        try {
+            HibernateClassicDatabase database = connect(CLASSIC_URL);
+
+            assertEquals(1, threads.get());
+            assertNotNull(database.getRelationalModel().findTable(null, null, "Bid"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void bootstrapIsCancelledAfterTimeout() throws Exception {
+        HibernateClassicDatabase database = connect(CLASSIC_URL + "?" + HibernateDatabase.BOOTSTRAP_TIMEOUT_PROPERTY + "=1");
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try {
+            database.runBootstrap(() -> {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            fail("Expected the bootstrap to time out");
+        } catch (DatabaseException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("within 1 seconds"));
+        }
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void invalidBootstrapTimeoutIsReported() {
+        try {
+            connect(CLASSIC_URL + "?" + HibernateDatabase.BOOTSTRAP_TIMEOUT_PROPERTY + "=soon");
+            fail("Expected the bootstrap timeout to be rejected");
+        } catch (Exception e) {
+            Throwable cause = e;
+            while (!(cause instanceof DatabaseException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertTrue(cause.toString(), cause instanceof DatabaseException);
+            assertTrue(cause.getMessage(), cause.getMessage().contains(HibernateDatabase.BOOTSTRAP_TIMEOUT_PROPERTY + " 'soon'"));
+        }
+    }
+
+    private HibernateClassicDatabase connect(String url) throws DatabaseException {
+        HibernateClassicDatabase database = new HibernateClassicDatabase();
+        database.setConnection(new JdbcConnection(new HibernateConnection(url, new ClassLoaderResourceAccessor())));
+        return database;
+    }
+}
@@ -1,7 +1,11 @@
 package liquibase.ext.hibernate.database;
 
+import com.example.ejb3.auction.Bid;
 import liquibase.CatalogAndSchema;
 import liquibase.database.Database;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModelGenerator;
 import liquibase.integration.commandline.CommandLineUtils;
 import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.snapshot.DatabaseSnapshot;
@@ -9,7 +13,13 @@ import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
+import org.hibernate.boot.MetadataSources;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -18,6 +28,9 @@ import static org.junit.Assert.*;
 
 public class HibernateEjb3DatabaseTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void simpleEjb3Url() throws Exception {
         String url = "hibernate:ejb3:auction";
@@ -44,6 +57,105 @@ public class HibernateEjb3DatabaseTest {
         assertEquals("nvarchar", userTable.getColumn("userName").getType().getTypeName());
     }
 
+    @Test
+    public void releaseMetadataAfterExtraction() throws Exception {
+        String url = "hibernate:ejb3:auction?" + HibernateDatabase.RELEASE_METADATA_PROPERTY + "=true";
+        Database database = CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), url, null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+
+        HibernateEjb3Database ejb3Database = (HibernateEjb3Database) database;
+        assertNull(ejb3Database.getMetadata());
+        assertNull(ejb3Database.entityManagerFactory);
+        assertNotNull(ejb3Database.getRelationalModel());
+
+        DatabaseSnapshot snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database));
+
+        assertEjb3HibernateMapped(snapshot);
+    }
+
+    @Test
+    public void metadataOnlyBootstrapMatchesEntityManagerFactoryBootstrap() throws Exception {
+        ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor(this.getClass().getClassLoader());
+
+        HibernateEjb3Database full = (HibernateEjb3Database) CommandLineUtils.createDatabaseObject(resourceAccessor, "hibernate:ejb3:auction?" + HibernateEjb3Database.METADATA_ONLY_PROPERTY + "=false", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        HibernateEjb3Database metadataOnly = (HibernateEjb3Database) CommandLineUtils.createDatabaseObject(resourceAccessor, "hibernate:ejb3:auction", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+
+        assertNotNull(full.entityManagerFactory);
+        assertNull(metadataOnly.entityManagerFactory);
+        assertEquals(full.getDialect().getClass(), metadataOnly.getDialect().getClass());
+        assertEquals(full.getRelationalModel().getTables(), metadataOnly.getRelationalModel().getTables());
+        assertEquals(full.getRelationalModel().getSequences(), metadataOnly.getRelationalModel().getSequences());
+        // the same model, so the model cache and registry must not tell the two apart
+        assertEquals(full.getConfigurationKey(), metadataOnly.getConfigurationKey());
+    }
+
+    @Test
+    public void configureSourcesOnlyAddsManagedAndListedPackages() throws Exception {
+        String url = "hibernate:ejb3:auction?" + HibernateEjb3Database.ADDITIONAL_PACKAGES_PROPERTY + "=com.example.other, com.example.another";
+        HibernateEjb3Database database = (HibernateEjb3Database) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), url, null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+
+        MetadataSources sources = new MetadataSources();
+        database.configureSources(sources);
+
+        assertThat(sources.getAnnotatedPackages(), hasItems("com.example.ejb3.auction", "com.example.other", "com.example.another"));
+        assertThat(sources.getAnnotatedPackages(), not(hasItem("org.junit")));
+        assertThat(sources.getAnnotatedClasses(), hasItem(Bid.class));
+    }
+
+    @Test
+    public void packageLevelAnnotationsOfListedClassesAreRead() throws Exception {
+        String url = "hibernate:ejb3:packageGenerator";
+        HibernateDatabase database = (HibernateDatabase) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), url, null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        try {
+            // the generator is only defined in com.example.packagegenerator's package-info
+            HibernateRelationalModel.Sequence sequence = database.getRelationalModel().getSequences().stream()
+                    .filter(candidate -> candidate.name().equalsIgnoreCase("TICKET_SEQ"))
+                    .findFirst().orElse(null);
+            assertNotNull(sequence);
+            assertEquals(5, sequence.incrementBy());
+        } finally {
+            database.close();
+        }
+    }
+
+    @Test
+    public void packageLevelAnnotationsOfScannedClassesAreRead() throws Exception {
+        try (SyntheticModel model = new SyntheticModelGenerator().entities(1).columns(1).foreignKeys(0).indexes(0).generate(temporaryFolder.getRoot().toPath())) {
+            String packageName = model.getPackageName() + ".scanned";
+            model.addClass(packageName + ".package-info", "@jakarta.persistence.SequenceGenerator(name = \"scanned_seq\", sequenceName = \"SCANNED_SEQ\", allocationSize = 7)\n"
+                    + "package " + packageName + ";\n");
+            model.addClass(packageName + ".ScannedEntity", "package " + packageName + ";\n\n"
+                    + "import jakarta.persistence.*;\n\n"
+                    + "@Entity\n"
+                    + "public class ScannedEntity {\n"
+                    + "    @Id\n"
+                    + "    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = \"scanned_seq\")\n"
+                    + "    private long id;\n"
+                    + "}\n");
+            // no listed classes, so hibernate finds the entities by scanning the classes directory
+            Files.writeString(model.getClassesDirectory().resolve("META-INF/persistence.xml"), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<persistence xmlns=\"https://jakarta.ee/xml/ns/persistence\" version=\"3.0\">\n"
+                    + "    <persistence-unit name=\"scanned\" transaction-type=\"RESOURCE_LOCAL\">\n"
+                    + "        <exclude-unlisted-classes>false</exclude-unlisted-classes>\n"
+                    + "        <properties>\n"
+                    + "            <property name=\"hibernate.dialect\" value=\"org.hibernate.dialect.H2Dialect\"/>\n"
+                    + "        </properties>\n"
+                    + "    </persistence-unit>\n"
+                    + "</persistence>\n", StandardCharsets.UTF_8);
+
+            HibernateDatabase database = model.open("hibernate:ejb3:scanned");
+            try {
+                // the generator is only defined in the scanned package's package-info
+                HibernateRelationalModel.Sequence sequence = database.getRelationalModel().getSequences().stream()
+                        .filter(candidate -> candidate.name().equalsIgnoreCase("SCANNED_SEQ"))
+                        .findFirst().orElse(null);
+                assertNotNull(sequence);
+                assertEquals(7, sequence.incrementBy());
+            } finally {
+                database.close();
+            }
+        }
+    }
+
     public static void assertEjb3HibernateMapped(DatabaseSnapshot snapshot) {
         assertThat(snapshot.get(Table.class), containsInAnyOrder(
                 hasProperty("name", is("Bid")),
@@ -0,0 +1,90 @@
+package liquibase.ext.hibernate.database;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Table;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class HibernateSnapshotDatabaseTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void exportedModelSnapshotsLikeTheBootstrappedModel() throws Exception {
+        File modelFile = new File(temporaryFolder.getRoot(), "auction.model");
+        ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor(this.getClass().getClassLoader());
+
+        HibernateDatabase ejb3Database = (HibernateDatabase) CommandLineUtils.createDatabaseObject(resourceAccessor, "hibernate:ejb3:auction?exportModel=" + modelFile.getAbsolutePath(), null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        assertTrue(modelFile.isFile());
+
+        Database database = CommandLineUtils.createDatabaseObject(resourceAccessor, "hibernate:snapshot:" + modelFile.getAbsolutePath(), null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        assertThat(database, instanceOf(HibernateSnapshotDatabase.class));
+        HibernateSnapshotDatabase snapshotDatabase = (HibernateSnapshotDatabase) database;
+        assertNull(snapshotDatabase.getMetadata());
+        assertEquals(ejb3Database.getDialect().getClass(), snapshotDatabase.getDialect().getClass());
+        assertEquals(new HashSet<>(ejb3Database.getRelationalModel().getTables()), new HashSet<>(snapshotDatabase.getRelationalModel().getTables()));
+
+        DatabaseSnapshot expected = SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, ejb3Database, new SnapshotControl(ejb3Database));
+        DatabaseSnapshot actual = SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, snapshotDatabase, new SnapshotControl(snapshotDatabase));
+
+        assertThat(columnCounts(actual), not(anEmptyMap()));
+        assertEquals(columnCounts(expected), columnCounts(actual));
+        assertEquals(foreignKeys(expected), foreignKeys(actual));
+
+        ejb3Database.close();
+        snapshotDatabase.close();
+    }
+
+    @Test(expected = DatabaseException.class)
+    public void missingModelFileFails() throws Exception {
+        File modelFile = new File(temporaryFolder.getRoot(), "missing.model");
+        try {
+            CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), "hibernate:snapshot:" + modelFile.getAbsolutePath(), null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof DatabaseException)) {
+                cause = cause.getCause();
+            }
+            if (cause == null) {
+                throw e;
+            }
+            throw (DatabaseException) cause;
+        }
+    }
+
+    private static Map<String, Integer> columnCounts(DatabaseSnapshot snapshot) {
+        Map<String, Integer> columnCounts = new TreeMap<>();
+        for (Table table : snapshot.get(Table.class)) {
+            columnCounts.put(table.getName(), table.getColumns().size());
+        }
+        return columnCounts;
+    }
+
+    private static Set<String> foreignKeys(DatabaseSnapshot snapshot) {
+        Set<String> foreignKeys = new HashSet<>();
+        for (ForeignKey foreignKey : snapshot.get(ForeignKey.class)) {
+            foreignKeys.add(foreignKey.getForeignKeyTable().getName() + "." + foreignKey.getForeignKeyColumns() + "->" + foreignKey.getPrimaryKeyTable().getName());
+        }
+        return foreignKeys;
+    }
+}
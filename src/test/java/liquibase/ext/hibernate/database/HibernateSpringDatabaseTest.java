@@ -22,6 +22,8 @@ import com.example.ejb3.auction.BuyNow;
 import com.example.pojo.auction.AuctionItem;
 import com.example.pojo.auction.Watcher;
 
+import java.util.HashSet;
+
 import static org.junit.Assert.*;
 
 public class HibernateSpringDatabaseTest {
@@ -107,4 +109,17 @@ public class HibernateSpringDatabaseTest {
         assertEquals("varchar", userTable.getColumn("userName").getType().getTypeName());
     }
 
+    @Test
+    public void parallelSpringScanningFindsTheSameModel() throws Exception {
+        String packages = "com.example.ejb3.auction,com.example.timezone";
+        ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor(this.getClass().getClassLoader());
+
+        HibernateDatabase sequential = (HibernateDatabase) CommandLineUtils.createDatabaseObject(resourceAccessor, "hibernate:spring:" + packages + "?dialect=" + H2Dialect.class.getName(), null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        HibernateDatabase parallel = (HibernateDatabase) CommandLineUtils.createDatabaseObject(resourceAccessor, "hibernate:spring:" + packages + "?dialect=" + H2Dialect.class.getName() + "&" + HibernateSpringPackageDatabase.PARALLEL_SCAN_PROPERTY + "=true", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+
+        assertEquals(new HashSet<>(sequential.getRelationalModel().getTables()), new HashSet<>(parallel.getRelationalModel().getTables()));
+        assertNotNull(parallel.getMetadata().getEntityBinding(Bid.class.getName()));
+        assertEquals(sequential.getConfigurationKey(), parallel.getConfigurationKey());
+    }
+
 }
@@ -0,0 +1,101 @@
+package liquibase.ext.hibernate.diff;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Table;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class HibernateIncrementalDiffTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private HibernateDatabase hibernateDatabase;
+    private Connection h2Connection;
+    private Database h2Database;
+    private Path hashesFile;
+
+    @Before
+    public void setUp() throws Exception {
+        hibernateDatabase = (HibernateDatabase) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), "hibernate:ejb3:auction", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        h2Database = new H2Database();
+        h2Connection = DriverManager.getConnection("jdbc:h2:mem:incremental" + System.nanoTime(), "SA", "");
+        h2Database.setConnection(new JdbcConnection(h2Connection));
+        hashesFile = HibernateIncrementalDiff.getHashesFile(temporaryFolder.getRoot().toPath().resolve("changelog.xml").toString());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        h2Database.close();
+        hibernateDatabase.close();
+    }
+
+    @Test
+    public void withoutBaselineTheWholeModelIsCompared() throws Exception {
+        HibernateIncrementalDiff diff = new HibernateIncrementalDiff(hibernateDatabase, h2Database, hashesFile);
+        DiffResult diffResult = diff.compare(new CompareControl());
+
+        assertEquals(diff.getHashes().getTables().size(), diffResult.getMissingObjects(Table.class).size());
+    }
+
+    @Test
+    public void onlyTablesChangedSinceTheBaselineAreCompared() throws Exception {
+        HibernateIncrementalDiff diff = new HibernateIncrementalDiff(hibernateDatabase, h2Database, hashesFile);
+        diff.storeBaseline();
+
+        assertTrue(diff.compare(new CompareControl()).getMissingObjects(Table.class).isEmpty());
+
+        // a changed hash for Bid and tables that have since been removed from the model, one of them in another schema
+        List<String> lines = Files.readAllLines(hashesFile, StandardCharsets.UTF_8);
+        lines.replaceAll(line -> line.startsWith("table\t-\t-\tBid\t") ? line.replaceFirst("\tBid\t[0-9a-f]+\t", "\tBid\t00\t") : line);
+        lines.add("table\t-\t-\tRetiredItem\t00\t00\t-");
+        lines.add("table\t-\tARCHIVE\tRetiredBid\t00\t00\t-");
+        Files.write(hashesFile, lines, StandardCharsets.UTF_8);
+        try (Statement statement = h2Connection.createStatement()) {
+            statement.execute("create table RetiredItem (id bigint)");
+            statement.execute("create schema ARCHIVE");
+            statement.execute("create table ARCHIVE.RetiredBid (id bigint)");
+        }
+
+        CompareControl compareControl = new CompareControl(new CompareControl.SchemaComparison[]{
+                new CompareControl.SchemaComparison(CatalogAndSchema.DEFAULT, CatalogAndSchema.DEFAULT),
+                new CompareControl.SchemaComparison(new CatalogAndSchema(null, "ARCHIVE"), new CatalogAndSchema(null, "ARCHIVE"))}, (String) null);
+        DiffResult diffResult = new HibernateIncrementalDiff(hibernateDatabase, h2Database, hashesFile).compare(compareControl);
+
+        // AuctionItem has a foreign key to Bid, so it is compared as well
+        assertEquals(Set.of("auctionitem", "bid"), names(diffResult.getMissingObjects(Table.class)));
+        assertEquals(Set.of("retireditem", "retiredbid"), names(diffResult.getUnexpectedObjects(Table.class)));
+    }
+
+    private static Set<String> names(Set<? extends DatabaseObject> objects) {
+        Set<String> names = new TreeSet<>();
+        for (DatabaseObject object : objects) {
+            names.add(object.getName().toLowerCase());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,114 @@
+package liquibase.ext.hibernate.diff;
+
+import liquibase.change.AddColumnConfig;
+import liquibase.change.Change;
+import liquibase.change.core.AddColumnChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.DiffToChangeLog;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class MissingColumnChangeGeneratorTest {
+
+    @Test
+    public void missingColumnsOfATableAreAddedInOneChange() throws Exception {
+        Database hibernateDatabase = connectHibernate();
+        Database h2Database = connectH2("create table Bid (id bigint primary key)");
+
+        try {
+            DiffOutputControl diffOutputControl = diffOutputControl();
+            List<AddColumnChange> bidChanges = bidChanges(hibernateDatabase, h2Database, diffOutputControl);
+
+            assertEquals(1, bidChanges.size());
+            List<String> columns = columnNames(bidChanges.get(0));
+            assertThat(columns, hasItems("amount", "datetime", "bidder_id", "item_id"));
+            assertThat(columns, not(hasItem("id")));
+            assertTrue(bidChanges.get(0).supportsRollback(h2Database));
+        } finally {
+            h2Database.close();
+            hibernateDatabase.close();
+        }
+    }
+
+    @Test
+    public void diffsSharingAnOutputControlGetTheirOwnChanges() throws Exception {
+        Database hibernateDatabase = connectHibernate();
+        Database firstDatabase = connectH2("create table Bid (id bigint primary key)");
+        Database secondDatabase = connectH2("create table Bid (id bigint primary key, amount numeric(19,2))");
+
+        try {
+            DiffOutputControl diffOutputControl = diffOutputControl();
+            List<AddColumnChange> firstChanges = bidChanges(hibernateDatabase, firstDatabase, diffOutputControl);
+            List<AddColumnChange> secondChanges = bidChanges(hibernateDatabase, secondDatabase, diffOutputControl);
+            List<AddColumnChange> firstChangesAgain = bidChanges(hibernateDatabase, firstDatabase, diffOutputControl);
+
+            assertEquals(1, firstChanges.size());
+            assertThat(columnNames(firstChanges.get(0)), hasItems("amount", "datetime", "bidder_id", "item_id"));
+            assertEquals(1, secondChanges.size());
+            assertThat(columnNames(secondChanges.get(0)), hasItems("datetime", "bidder_id", "item_id"));
+            assertThat(columnNames(secondChanges.get(0)), not(hasItem("amount")));
+            assertEquals(1, firstChangesAgain.size());
+            assertEquals(columnNames(firstChanges.get(0)), columnNames(firstChangesAgain.get(0)));
+        } finally {
+            secondDatabase.close();
+            firstDatabase.close();
+            hibernateDatabase.close();
+        }
+    }
+
+    private Database connectHibernate() throws Exception {
+        return CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), "hibernate:ejb3:auction", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+    }
+
+    private static Database connectH2(String createTable) throws Exception {
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:missingColumns" + System.nanoTime(), "SA", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(createTable);
+        }
+        Database h2Database = new H2Database();
+        h2Database.setConnection(new JdbcConnection(connection));
+        return h2Database;
+    }
+
+    private static DiffOutputControl diffOutputControl() {
+        DiffOutputControl diffOutputControl = new DiffOutputControl();
+        diffOutputControl.setIncludeCatalog(false);
+        diffOutputControl.setIncludeSchema(false);
+        return diffOutputControl;
+    }
+
+    private static List<AddColumnChange> bidChanges(Database hibernateDatabase, Database h2Database, DiffOutputControl diffOutputControl) throws Exception {
+        DiffResult diffResult = DiffGeneratorFactory.getInstance().compare(hibernateDatabase, h2Database, new CompareControl());
+        List<AddColumnChange> bidChanges = new ArrayList<>();
+        for (ChangeSet changeSet : new DiffToChangeLog(diffResult, diffOutputControl).generateChangeSets()) {
+            for (Change change : changeSet.getChanges()) {
+                if (change instanceof AddColumnChange addColumnChange && addColumnChange.getTableName().equalsIgnoreCase("Bid")) {
+                    bidChanges.add(addColumnChange);
+                }
+            }
+        }
+        return bidChanges;
+    }
+
+    private static List<String> columnNames(AddColumnChange change) {
+        return change.getColumns().stream().map(AddColumnConfig::getName).map(String::toLowerCase).toList();
+    }
+}
@@ -0,0 +1,109 @@
+package liquibase.ext.hibernate.diff;
+
+import liquibase.change.AddColumnConfig;
+import liquibase.change.core.CreateIndexChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.DiffToChangeLog;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.serializer.core.xml.XMLChangeLogSerializer;
+import liquibase.sql.visitor.SqlVisitor;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class MissingIndexChangeGeneratorTest {
+
+    private final MissingIndexChangeGenerator generator = new MissingIndexChangeGenerator();
+
+    @Test
+    public void postgresIndexesAreCreatedConcurrently() {
+        assertEquals("CREATE INDEX CONCURRENTLY idx_bid_amount ON public.bid(amount)", online(new PostgresDatabase(), "CREATE INDEX idx_bid_amount ON public.bid(amount)"));
+        assertEquals("CREATE UNIQUE INDEX CONCURRENTLY idx_bid_amount ON public.bid(amount)", online(new PostgresDatabase(), "CREATE UNIQUE INDEX idx_bid_amount ON public.bid(amount)"));
+    }
+
+    @Test
+    public void oracleAndMysqlIndexesAreCreatedOnline() {
+        assertEquals("CREATE INDEX idx_bid_amount ON bid(amount) ONLINE", online(new OracleDatabase(), "CREATE INDEX idx_bid_amount ON bid(amount)"));
+        assertEquals("CREATE INDEX idx_bid_amount ON bid(amount) ALGORITHM=INPLACE LOCK=NONE", online(new MySQLDatabase(), "CREATE INDEX idx_bid_amount ON bid(amount)"));
+    }
+
+    @Test
+    public void databasesWithoutOnlineIndexesAreLeftAlone() {
+        assertNull(generator.createOnlineSqlVisitor(new H2Database()));
+        // the SQL Server edition cannot be determined without a connection
+        assertNull(generator.createOnlineSqlVisitor(new MSSQLDatabase()));
+    }
+
+    @Test
+    public void onlineIndexChangeSetDoesNotRunInTransaction() {
+        CreateIndexChange createIndexChange = new CreateIndexChange();
+        createIndexChange.setTableName("bid");
+        createIndexChange.setIndexName("idx_bid_amount");
+        AddColumnConfig column = new AddColumnConfig();
+        column.setName("amount");
+        createIndexChange.setColumns(List.of(column));
+        SqlVisitor visitor = generator.createOnlineSqlVisitor(new PostgresDatabase());
+        OnlineCreateIndexChange change = new OnlineCreateIndexChange(createIndexChange, visitor);
+
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "changelog.xml", null, null, null);
+        changeSet.addChange(change);
+
+        assertFalse(changeSet.isRunInTransaction());
+        assertEquals(List.of(visitor), changeSet.getSqlVisitors());
+        assertEquals("idx_bid_amount", change.getIndexName());
+        assertEquals("amount", change.getColumns().get(0).getName());
+    }
+
+    @Test
+    public void onlineIndexChangeSetsAreSerializedWithTheirModifySql() throws Exception {
+        ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor(this.getClass().getClassLoader());
+        Database hibernateDatabase = CommandLineUtils.createDatabaseObject(resourceAccessor, "hibernate:ejb3:auction?" + HibernateDatabase.ONLINE_INDEXES_PROPERTY + "=true&"
+                + HibernateDatabase.FOREIGN_KEY_INDEXES_PROPERTY + "=true", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        Database postgresDatabase = CommandLineUtils.createDatabaseObject(resourceAccessor, "offline:postgresql", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+
+        try {
+            DiffResult diffResult = DiffGeneratorFactory.getInstance().compare(hibernateDatabase, postgresDatabase, new CompareControl());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false, null)).print(new PrintStream(out, true, StandardCharsets.UTF_8), new XMLChangeLogSerializer());
+
+            List<String> indexChangeSets = new ArrayList<>();
+            for (String changeSet : out.toString(StandardCharsets.UTF_8).split("<changeSet ")) {
+                if (changeSet.contains("<createIndex ")) {
+                    indexChangeSets.add(changeSet);
+                }
+            }
+            assertFalse(indexChangeSets.isEmpty());
+            for (String changeSet : indexChangeSets) {
+                assertTrue(changeSet, changeSet.contains("runInTransaction=\"false\""));
+                assertTrue(changeSet, Pattern.compile("<modifySql [^>]*dbms=\"postgresql\"").matcher(changeSet).find());
+                assertTrue(changeSet, changeSet.contains("CONCURRENTLY"));
+            }
+        } finally {
+            postgresDatabase.close();
+            hibernateDatabase.close();
+        }
+    }
+
+    private String online(Database database, String sql) {
+        return generator.createOnlineSqlVisitor(database).modifySql(sql, database);
+    }
+}
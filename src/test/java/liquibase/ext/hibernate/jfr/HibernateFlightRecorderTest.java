@@ -0,0 +1,90 @@
+package liquibase.ext.hibernate.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import liquibase.CatalogAndSchema;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+public class HibernateFlightRecorderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void bootstrapPhasesAndGeneratorCallsAreRecorded() throws Exception {
+        Path recordingFile = temporaryFolder.getRoot().toPath().resolve("hibernate.jfr");
+
+        HibernateDatabase database;
+        try (Recording recording = new Recording()) {
+            recording.enable(BootstrapPhaseEvent.class);
+            recording.enable(SnapshotGeneratorEvent.class);
+            recording.start();
+
+            database = (HibernateDatabase) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), "hibernate:classic:com/example/pojo/Hibernate.cfg.xml", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+            SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database));
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        Set<String> phases = new HashSet<>();
+        Set<String> generators = new HashSet<>();
+        Set<String> tables = new HashSet<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+            if (event.getEventType().getName().equals("liquibase.hibernate.BootstrapPhase")) {
+                phases.add(event.getString("phase"));
+            } else if (event.getEventType().getName().equals("liquibase.hibernate.SnapshotGenerator")) {
+                generators.add(event.getString("generator") + " " + event.getString("operation"));
+                if (event.getString("table") != null) {
+                    tables.add(event.getString("table"));
+                }
+            }
+        }
+
+        assertThat(phases, hasItems("configure", "createMetadataSources", "configureSources", "configureMetadataBuilder", "build", "buildMetadata", "extractModel"));
+        assertThat(generators, hasItems("TableSnapshotGenerator snapshotObject", "TableSnapshotGenerator addTo", "ColumnSnapshotGenerator addTo", "ForeignKeySnapshotGenerator addTo"));
+        assertThat(tables, hasItems("AuctionItem", "Bid"));
+
+        List<String> sections = database.getTimings().getSections().stream().map(HibernateTimings.Section::getName).toList();
+        assertThat(sections, hasItems("bootstrap build", "bootstrap extractModel", "TableSnapshotGenerator addTo", "ColumnSnapshotGenerator addTo"));
+        assertTrue(database.getTimings().toSummaryTable().contains("bootstrap configureSources"));
+
+        database.close();
+        assertTrue(database.getTimings().isEmpty());
+    }
+
+    @Test
+    public void timingsAccumulatePerSection() {
+        HibernateTimings timings = new HibernateTimings();
+        timings.record("b", 2_000_000);
+        timings.record("a", 1_000_000);
+        timings.record("b", 4_000_000);
+
+        List<HibernateTimings.Section> sections = timings.getSections();
+        assertEquals("b", sections.get(0).getName());
+        assertEquals(2, sections.get(0).getCalls());
+        assertEquals(6_000_000, sections.get(0).getNanos());
+        assertEquals("a", sections.get(1).getName());
+
+        String[] lines = timings.toSummaryTable().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].matches("b\\s+2\\s+6\\s+3000\\s*"));
+    }
+}
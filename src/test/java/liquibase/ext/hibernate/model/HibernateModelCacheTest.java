@@ -0,0 +1,109 @@
+package liquibase.ext.hibernate.model;
+
+import liquibase.database.Database;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModelGenerator;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HibernateModelCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void serializerRoundTrip() throws Exception {
+        HibernateRelationalModel.Column id = new HibernateRelationalModel.Column("id", "bigint", -5, null, true, "long", null, false, false, true, true, null);
+        HibernateRelationalModel.Column name = new HibernateRelationalModel.Column("name", "varchar(255) default 'x'", null, "'x'", false, null, "the name", true, true, false, false, "name_seq");
+        HibernateRelationalModel.Table table = new HibernateRelationalModel.Table("cat", null, "Item", "items", true,
+                List.of(id, name), List.of("id"),
+                List.of(new HibernateRelationalModel.ForeignKey("FK_ITEM", null, "other", "Owner", List.of("owner_id"), List.of("id"))),
+                List.of(new HibernateRelationalModel.Index("IX_ITEM", null, List.of(new HibernateRelationalModel.IndexColumn("name", true), new HibernateRelationalModel.IndexColumn("id", null)))),
+                List.of(new HibernateRelationalModel.UniqueKey("UK_ITEM", List.of("name"))));
+        HibernateRelationalModel.Table noPrimaryKey = new HibernateRelationalModel.Table(null, null, "Log", null, false, List.of(), null, List.of(), List.of(), List.of());
+        HibernateRelationalModel model = new HibernateRelationalModel(List.of(table, noPrimaryKey), List.of(new HibernateRelationalModel.Sequence("item_seq", 1, 50)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HibernateModelSerializer.write(model, new DataOutputStream(bytes));
+        HibernateRelationalModel read = HibernateModelSerializer.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(model.getTables(), read.getTables());
+        assertEquals(model.getSequences(), read.getSequences());
+        assertNull(read.findTable(null, null, "log").primaryKeyColumns());
+    }
+
+    @Test
+    public void secondConnectionIsServedFromCache() throws Exception {
+        File cacheDirectory = temporaryFolder.newFolder();
+        String url = "hibernate:spring:com.example.ejb3.auction?dialect=" + H2Dialect.class.getName() + "&" + HibernateModelCache.METADATA_CACHE_PROPERTY + "=" + cacheDirectory.getAbsolutePath();
+
+        HibernateDatabase first = connect(url);
+        try {
+            assertNotNull(first.getMetadata());
+            assertEquals(1, cacheDirectory.listFiles().length);
+        } finally {
+            first.close();
+        }
+
+        HibernateDatabase second = connect(url);
+        try {
+            assertNull(second.getMetadata());
+            assertEquals(first.getRelationalModel().getTables(), second.getRelationalModel().getTables());
+            assertEquals(first.getRelationalModel().getSequences(), second.getRelationalModel().getSequences());
+            assertEquals(H2Dialect.class, second.getDialect().getClass());
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    public void entityInANewSubpackageInvalidatesTheCache() throws Exception {
+        File cacheDirectory = temporaryFolder.newFolder();
+        try (SyntheticModel model = new SyntheticModelGenerator().entities(2).columns(1).generate(temporaryFolder.newFolder().toPath())) {
+            String url = model.getUrl(SyntheticModel.Flavour.SPRING_PACKAGE, HibernateModelCache.METADATA_CACHE_PROPERTY + "=" + cacheDirectory.getAbsolutePath());
+            model.open(url).close();
+
+            HibernateDatabase cached = model.open(url);
+            try {
+                assertNull(cached.getMetadata());
+            } finally {
+                cached.close();
+            }
+
+            String packageName = model.getPackageName() + ".extra";
+            model.addClass(packageName + ".Added", "package " + packageName + ";\n\n"
+                    + "@jakarta.persistence.Entity\n"
+                    + "public class Added {\n"
+                    + "    @jakarta.persistence.Id\n"
+                    + "    private Long id;\n"
+                    + "}\n");
+
+            HibernateDatabase rebuilt = model.open(url);
+            try {
+                assertNotNull(rebuilt.getMetadata());
+                assertNotNull(rebuilt.getRelationalModel().findTable(null, null, "Added"));
+            } finally {
+                rebuilt.close();
+            }
+        }
+    }
+
+    private HibernateDatabase connect(String url) throws Exception {
+        Database database = CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), url, null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        return (HibernateDatabase) database;
+    }
+}
@@ -0,0 +1,114 @@
+package liquibase.ext.hibernate.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class HibernateModelHashesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void unchangedModelHasNoChanges() {
+        HibernateModelHashes baseline = HibernateModelHashes.of(model(column("amount", "numeric(19,2)"), foreignKey("AuctionItem")));
+        HibernateModelHashes hashes = HibernateModelHashes.of(model(column("amount", "numeric(19,2)"), foreignKey("AuctionItem")));
+
+        assertEquals(Set.of(), hashes.changedTables(baseline));
+        assertEquals(Set.of(), hashes.changedSequences(baseline));
+    }
+
+    @Test
+    public void changedColumnOnlyChangesItsTable() {
+        HibernateModelHashes baseline = HibernateModelHashes.of(model(column("amount", "numeric(19,2)"), foreignKey("AuctionItem")));
+        HibernateModelHashes hashes = HibernateModelHashes.of(model(column("amount", "numeric(38,2)"), foreignKey("AuctionItem")));
+
+        assertEquals(Set.of("bid"), hashes.changedTables(baseline));
+    }
+
+    @Test
+    public void changedForeignKeyIncludesOldAndNewReferencedTables() {
+        HibernateModelHashes baseline = HibernateModelHashes.of(model(column("amount", "numeric(19,2)"), foreignKey("AuctionItem")));
+        HibernateModelHashes hashes = HibernateModelHashes.of(model(column("amount", "numeric(19,2)"), foreignKey("User")));
+
+        assertEquals(Set.of("bid", "auctionitem", "user"), hashes.changedTables(baseline));
+    }
+
+    @Test
+    public void tablesReferencingAChangedTableAreChanged() {
+        HibernateModelHashes baseline = HibernateModelHashes.of(model(column("amount", "numeric(19,2)"), foreignKey("AuctionItem")));
+        HibernateModelHashes hashes = HibernateModelHashes.of(new HibernateRelationalModel(List.of(
+                new HibernateRelationalModel.Table(null, null, "Bid", null, true, List.of(column("amount", "numeric(19,2)")), null, List.of(foreignKey("AuctionItem")), List.of(), List.of()),
+                table("AuctionItem", List.of(column("description", "varchar(1000)"))),
+                table("User", List.of())),
+                List.of()));
+
+        assertEquals(Set.of("auctionitem", "bid"), hashes.changedTables(baseline));
+    }
+
+    @Test
+    public void addedAndRemovedTablesAndSequencesAreChanged() {
+        HibernateRelationalModel baseline = new HibernateRelationalModel(List.of(table("Bid", List.of()), table("Watcher", List.of())),
+                List.of(new HibernateRelationalModel.Sequence("bid_seq", 1, 50)));
+        HibernateRelationalModel model = new HibernateRelationalModel(List.of(table("Bid", List.of()), table("Item", List.of())),
+                List.of(new HibernateRelationalModel.Sequence("bid_seq", 1, 1), new HibernateRelationalModel.Sequence("item_seq", 1, 50)));
+
+        HibernateModelHashes hashes = HibernateModelHashes.of(model);
+        assertEquals(Set.of("item", "watcher"), hashes.changedTables(HibernateModelHashes.of(baseline)));
+        assertEquals(Set.of("bid_seq", "item_seq"), hashes.changedSequences(HibernateModelHashes.of(baseline)));
+    }
+
+    @Test
+    public void nonPhysicalTablesAreNotHashed() {
+        HibernateRelationalModel model = new HibernateRelationalModel(List.of(
+                new HibernateRelationalModel.Table(null, null, "BidView", null, false, List.of(), null, List.of(), List.of(), List.of())), List.of());
+
+        assertTrue(HibernateModelHashes.of(model).getTables().isEmpty());
+    }
+
+    @Test
+    public void writeAndRead() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("changelog.xml.hibernate-hashes");
+        assertNull(HibernateModelHashes.read(file));
+
+        HibernateRelationalModel model = new HibernateRelationalModel(List.of(
+                new HibernateRelationalModel.Table(null, "auction", "Bid", null, true, List.of(column("amount", "numeric(19,2)")), null,
+                        List.of(foreignKey("AuctionItem")), List.of(), List.of()),
+                table("AuctionItem", List.of())),
+                List.of(new HibernateRelationalModel.Sequence("bid_seq", 1, 50)));
+        HibernateModelHashes hashes = HibernateModelHashes.of(model);
+        hashes.write(file);
+
+        HibernateModelHashes read = HibernateModelHashes.read(file);
+        assertEquals(hashes.getTables(), read.getTables());
+        assertEquals(hashes.getSequences(), read.getSequences());
+        assertEquals(Set.of("auctionitem"), read.getTables().get("auction.bid").references());
+        assertEquals(Set.of(), hashes.changedTables(read));
+    }
+
+    private static HibernateRelationalModel model(HibernateRelationalModel.Column amount, HibernateRelationalModel.ForeignKey foreignKey) {
+        return new HibernateRelationalModel(List.of(
+                new HibernateRelationalModel.Table(null, null, "Bid", null, true, List.of(amount), null, List.of(foreignKey), List.of(), List.of()),
+                table("AuctionItem", List.of()),
+                table("User", List.of())),
+                List.of());
+    }
+
+    private static HibernateRelationalModel.Table table(String name, List<HibernateRelationalModel.Column> columns) {
+        return new HibernateRelationalModel.Table(null, null, name, null, true, columns, null, List.of(), List.of(), List.of());
+    }
+
+    private static HibernateRelationalModel.Column column(String name, String sqlType) {
+        return new HibernateRelationalModel.Column(name, sqlType, null, null, true, null, null, true, false, false, false, null);
+    }
+
+    private static HibernateRelationalModel.ForeignKey foreignKey(String referencedTable) {
+        return new HibernateRelationalModel.ForeignKey("FK_" + referencedTable, null, null, referencedTable, List.of("item_id"), List.of("id"));
+    }
+}
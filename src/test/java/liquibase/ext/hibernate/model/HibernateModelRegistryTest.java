@@ -0,0 +1,83 @@
+package liquibase.ext.hibernate.model;
+
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HibernateModelRegistryTest {
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @Test
+    public void registeredModelsAreSharedUntilInvalidated() {
+        HibernateModelRegistry registry = new HibernateModelRegistry(Long.MAX_VALUE);
+        HibernateRelationalModel model = model("Item");
+
+        assertNull(registry.acquire("spring:a", classLoader));
+        HibernateModelRegistry.SharedModel registered = registry.register("spring:a", classLoader, model, H2Dialect.class.getName());
+        HibernateModelRegistry.SharedModel acquired = registry.acquire("spring:a", classLoader);
+
+        assertSame(registered, acquired);
+        assertSame(model, acquired.getModel());
+        assertEquals(2, acquired.getReferences());
+        assertNull(registry.acquire("spring:a", new ClassLoader(classLoader) {
+        }));
+
+        registry.invalidate("spring:a");
+        assertNull(registry.acquire("spring:a", classLoader));
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.getEstimatedBytes());
+    }
+
+    @Test
+    public void leastRecentlyUsedUnreferencedModelsAreEvicted() {
+        long modelSize = HibernateModelRegistry.estimateSize(model("Item"));
+        HibernateModelRegistry registry = new HibernateModelRegistry(2 * modelSize);
+
+        HibernateModelRegistry.SharedModel first = registry.register("spring:first", classLoader, model("Item"), null);
+        HibernateModelRegistry.SharedModel second = registry.register("spring:second", classLoader, model("Item"), null);
+        registry.register("spring:third", classLoader, model("Item"), null);
+
+        // every model is still referenced, so nothing can go
+        assertEquals(3, registry.size());
+
+        registry.release(second);
+        assertEquals(2, registry.size());
+        assertNull(registry.acquire("spring:second", classLoader));
+
+        registry.release(first);
+        assertNotNull(registry.acquire("spring:first", classLoader));
+    }
+
+    @Test
+    public void databasesWithTheSameUrlShareTheModel() throws Exception {
+        String url = "hibernate:spring:com.example.ejb3.auction?dialect=" + H2Dialect.class.getName() + "&" + HibernateModelRegistry.SHARE_MODEL_PROPERTY + "=true";
+        HibernateDatabase first = connect(url);
+        HibernateDatabase second = connect(url);
+        String configurationKey = first.getConfigurationKey();
+        try {
+            assertNotNull(first.getMetadata());
+            assertNull(second.getMetadata());
+            assertSame(first.getRelationalModel(), second.getRelationalModel());
+            assertEquals(H2Dialect.class, second.getDialect().getClass());
+        } finally {
+            first.close();
+            second.close();
+            HibernateModelRegistry.getInstance().invalidate(configurationKey);
+        }
+    }
+
+    private HibernateDatabase connect(String url) throws Exception {
+        return (HibernateDatabase) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(classLoader), url, null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+    }
+
+    private static HibernateRelationalModel model(String tableName) {
+        return new HibernateRelationalModel(List.of(new HibernateRelationalModel.Table(null, null, tableName, null, true, List.of(), null, List.of(), List.of(), List.of())), List.of());
+    }
+}
@@ -0,0 +1,54 @@
+package liquibase.ext.hibernate.model;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HibernateRelationalModelTest {
+
+    @Test
+    public void findTableIgnoresCase() {
+        HibernateRelationalModel.Table bid = table(null, "Bid");
+        HibernateRelationalModel.Table item = table(null, "AuctionItem");
+        HibernateRelationalModel model = new HibernateRelationalModel(List.of(bid, item), List.of());
+
+        assertSame(bid, model.findTable(null, null, "bid"));
+        assertSame(item, model.findTable("HIBERNATE", "HIBERNATE", "AUCTIONITEM"));
+        assertNull(model.findTable(null, null, "Watcher"));
+        assertNull(model.findTable(null, null, null));
+        assertEquals(2, model.getTables().size());
+    }
+
+    @Test
+    public void findTablePrefersMatchingSchema() {
+        HibernateRelationalModel.Table first = table("first", "Item");
+        HibernateRelationalModel.Table second = table("second", "Item");
+        HibernateRelationalModel model = new HibernateRelationalModel(List.of(first, second), List.of());
+
+        assertSame(second, model.findTable(null, "SECOND", "item"));
+        assertSame(first, model.findTable(null, "first", "item"));
+        assertSame(first, model.findTable(null, "HIBERNATE", "item"));
+    }
+
+    @Test
+    public void findTableKeepsSameNamedTablesOfOtherSchemasApart() {
+        HibernateRelationalModel.Table defaultItem = table(null, "Item", foreignKey("FK_DEFAULT", "Owner"));
+        HibernateRelationalModel.Table otherItem = table("other", "Item", foreignKey("FK_OTHER", "Seller"));
+        HibernateRelationalModel model = new HibernateRelationalModel(List.of(defaultItem, otherItem), List.of());
+
+        // the default schema table matches any schema, but must not shadow the table that is really in the requested one
+        assertSame(otherItem, model.findTable(null, "OTHER", "item"));
+        assertEquals(List.of(foreignKey("FK_OTHER", "Seller")), model.findTable(null, "other", "Item").foreignKeys());
+        assertSame(defaultItem, model.findTable(null, null, "item"));
+    }
+
+    private static HibernateRelationalModel.Table table(String schema, String name, HibernateRelationalModel.ForeignKey... foreignKeys) {
+        return new HibernateRelationalModel.Table(null, schema, name, null, true, List.of(), null, List.of(foreignKeys), List.of(), List.of());
+    }
+
+    private static HibernateRelationalModel.ForeignKey foreignKey(String name, String referencedTable) {
+        return new HibernateRelationalModel.ForeignKey(name, null, null, referencedTable, List.of("ref_id"), List.of("id"));
+    }
+}
@@ -1,10 +1,28 @@
 package liquibase.ext.hibernate.snapshot;
 
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModel;
+import liquibase.ext.hibernate.synthetic.SyntheticModelGenerator;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+import org.hibernate.dialect.H2Dialect;
 import org.hibernate.type.SqlTypes;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.sql.Types;
 
@@ -12,6 +30,9 @@ import static org.junit.Assert.*;
 
 public class ColumnSnapshotGeneratorTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private ColumnSnapshotGenerator columnSnapshotGenerator;
 
     @Before
@@ -97,4 +118,68 @@ public class ColumnSnapshotGeneratorTest {
         assertEquals("datetime", datetime6.getTypeName().toLowerCase());
         assertEquals(6, datetime6.getColumnSize().intValue());
     }
+
+    @Test
+    public void addToLooksUpTheHibernateTableOncePerTable() throws Exception {
+        String url = "hibernate:spring:com.example.ejb3.auction?dialect=" + H2Dialect.class.getName();
+        Database database = CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), url, null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        DatabaseSnapshot snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database));
+
+        CountingColumnSnapshotGenerator generator = new CountingColumnSnapshotGenerator();
+        Table bidTable = new Table().setName("Bid");
+        bidTable.setSchema(new Schema());
+        generator.addTo(bidTable, snapshot);
+
+        // one table lookup no matter how many columns the table has
+        assertEquals(1, generator.tableLookups);
+        assertEquals(6, bidTable.getColumns().size());
+        assertTrue(bidTable.getColumn("id").isAutoIncrement());
+        assertFalse(bidTable.getColumn("id").isNullable());
+        assertFalse(bidTable.getColumn("amount").isAutoIncrement());
+    }
+
+    @Test
+    public void addToLookupsDoNotGrowWithTheColumnCount() throws Exception {
+        for (int columns : new int[]{10, 200}) {
+            try (SyntheticModel model = new SyntheticModelGenerator().entities(2).columns(columns).foreignKeys(0).indexes(0)
+                    .generate(temporaryFolder.newFolder().toPath())) {
+                HibernateDatabase database = model.open(model.getUrl(SyntheticModel.Flavour.SPRING_PACKAGE));
+                try {
+                    CountingColumnSnapshotGenerator generator = new CountingColumnSnapshotGenerator();
+                    Table table = new Table().setName("SYN_00001");
+                    table.setSchema(new Schema());
+                    model.run(() -> {
+                        DatabaseSnapshot snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database, Table.class));
+                        generator.addTo(table, snapshot);
+                        return null;
+                    });
+
+                    // the id column plus the generated ones, filled in with one table lookup and no per-column lookups
+                    assertEquals(columns + 1, table.getColumns().size());
+                    assertEquals(1, generator.tableLookups);
+                    assertEquals(0, generator.columnLookups);
+                } finally {
+                    database.close();
+                }
+            }
+        }
+    }
+
+    private static class CountingColumnSnapshotGenerator extends ColumnSnapshotGenerator {
+
+        private int tableLookups;
+        private int columnLookups;
+
+        @Override
+        protected HibernateRelationalModel.Table findHibernateTable(DatabaseObject example, DatabaseSnapshot snapshot) {
+            tableLookups++;
+            return super.findHibernateTable(example, snapshot);
+        }
+
+        @Override
+        protected void snapshotColumn(Column column, DatabaseSnapshot snapshot) throws DatabaseException {
+            columnLookups++;
+            super.snapshotColumn(column, snapshot);
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package liquibase.ext.hibernate.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ForeignKeySnapshotGeneratorTest {
+
+    @Test
+    public void foreignKeysGetBackingIndexesWhenRequested() throws Exception {
+        DatabaseSnapshot snapshot = snapshot("hibernate:ejb3:auction?" + HibernateDatabase.FOREIGN_KEY_INDEXES_PROPERTY + "=true");
+        Table bid = (Table) snapshot.get(new Table().setName("Bid").setSchema(new Schema()));
+
+        Set<String> foreignKeyColumns = new HashSet<>();
+        for (ForeignKey foreignKey : bid.getOutgoingForeignKeys()) {
+            foreignKeyColumns.add(foreignKey.getForeignKeyColumns().toLowerCase());
+            Index index = findIndex(bid, "IX_" + foreignKey.getName());
+            assertNotNull("No backing index for " + foreignKey.getName(), index);
+            assertEquals(foreignKey.getForeignKeyColumns().toLowerCase(), index.getColumnNames().toLowerCase());
+        }
+        assertThat(foreignKeyColumns, hasItems("item_id", "bidder_id"));
+    }
+
+    @Test
+    public void foreignKeysCoveredByThePrimaryKeyGetNoBackingIndex() throws Exception {
+        DatabaseSnapshot snapshot = snapshot("hibernate:ejb3:auction?" + HibernateDatabase.FOREIGN_KEY_INDEXES_PROPERTY + "=true");
+
+        for (ForeignKey foreignKey : snapshot.get(ForeignKey.class)) {
+            Table table = (Table) snapshot.get(foreignKey.getForeignKeyTable());
+            if (table != null && table.getPrimaryKey() != null
+                    && table.getPrimaryKey().getColumnNames().toLowerCase().startsWith(foreignKey.getForeignKeyColumns().toLowerCase())) {
+                assertNull(findIndex(table, "IX_" + foreignKey.getName()));
+            }
+        }
+    }
+
+    @Test
+    public void foreignKeysGetNoBackingIndexesByDefault() throws Exception {
+        DatabaseSnapshot snapshot = snapshot("hibernate:ejb3:auction");
+
+        for (Index index : snapshot.get(Index.class)) {
+            assertThat(index.getName(), not(startsWith("IX_FK")));
+        }
+    }
+
+    @Test
+    public void foreignKeysLeadingAUniqueKeyOrAnIndexGetNoBackingIndex() throws Exception {
+        DatabaseSnapshot snapshot = snapshot("hibernate:ejb3:foreignKeyIndex?" + HibernateDatabase.FOREIGN_KEY_INDEXES_PROPERTY + "=true");
+        Table book = (Table) snapshot.get(new Table().setName("Book").setSchema(new Schema()));
+
+        Set<String> indexedColumns = new HashSet<>();
+        for (Index index : book.getIndexes()) {
+            indexedColumns.add(index.getColumnNames().toLowerCase());
+        }
+        assertThat(indexedColumns, not(hasItem("shelf_id")));
+        assertThat(indexedColumns, not(hasItem("archive_shelf_id")));
+        assertNull(findIndex(book, "IX_FK_BOOK_SHELF"));
+        assertNull(findIndex(book, "IX_FK_BOOK_ARCHIVE_SHELF"));
+    }
+
+    @Test
+    public void longBackingIndexNamesAreHashed() throws Exception {
+        String url = "hibernate:ejb3:foreignKeyIndex?" + HibernateDatabase.FOREIGN_KEY_INDEXES_PROPERTY + "=true";
+        String name = null;
+        for (int i = 0; i < 2; i++) {
+            Table book = (Table) snapshot(url).get(new Table().setName("Book").setSchema(new Schema()));
+            Index index = null;
+            for (Index candidate : book.getIndexes()) {
+                if (candidate.getColumnNames().equalsIgnoreCase("previous_edition_id")) {
+                    index = candidate;
+                }
+            }
+            assertNotNull(index);
+            assertTrue(index.getName(), index.getName().matches("Book_[0-9a-z]{1,4}_IX"));
+            if (name != null) {
+                assertEquals(name, index.getName());
+            }
+            name = index.getName();
+        }
+    }
+
+    @Test
+    public void hashedBackingIndexNamesOfLongTableNamesAreCut() throws Exception {
+        DatabaseSnapshot snapshot = snapshot("hibernate:ejb3:foreignKeyIndex?" + HibernateDatabase.FOREIGN_KEY_INDEXES_PROPERTY + "=true");
+        Table entry = (Table) snapshot.get(new Table().setName("LIBRARY_BOOK_LENDING_HISTORY_ENTRY").setSchema(new Schema()));
+
+        Index index = null;
+        for (Index candidate : entry.getIndexes()) {
+            if (candidate.getColumnNames().equalsIgnoreCase("book_id")) {
+                index = candidate;
+            }
+        }
+        assertNotNull(index);
+        String name = index.getName();
+        assertTrue(name, name.length() <= 30);
+        assertTrue(name, name.startsWith("LIBRARY_BOOK_LENDING"));
+        assertTrue(name, name.endsWith("_IX"));
+    }
+
+    private DatabaseSnapshot snapshot(String url) throws Exception {
+        Database database = CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), url, null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        return SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database));
+    }
+
+    private static Index findIndex(Table table, String name) {
+        for (Index index : table.getIndexes()) {
+            if (name.equalsIgnoreCase(index.getName())) {
+                return index;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package liquibase.ext.hibernate.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Sequence;
+import liquibase.structure.core.Table;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+public class HibernateSnapshotStatsTest {
+
+    @Test
+    public void generatorsCountWhatTheyProduceFromTheModel() throws Exception {
+        HibernateDatabase database = (HibernateDatabase) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), "hibernate:ejb3:auction", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database));
+
+        int tables = 0, columns = 0, primaryKeys = 0, foreignKeys = 0, indexes = 0;
+        for (HibernateRelationalModel.Table table : database.getRelationalModel().getTables()) {
+            if (table.physical()) {
+                tables++;
+                columns += table.columns().size();
+                primaryKeys += table.primaryKeyColumns() == null ? 0 : 1;
+                foreignKeys += table.foreignKeys().size();
+                indexes += table.indexes().size();
+            }
+        }
+
+        HibernateSnapshotStats stats = database.getSnapshotStats();
+        assertEquals(tables, stats.getCount(Table.class));
+        assertEquals(columns, stats.getCount(Column.class));
+        assertEquals(primaryKeys, stats.getCount(PrimaryKey.class));
+        assertEquals(foreignKeys, stats.getCount(ForeignKey.class));
+        assertEquals(indexes, stats.getCount(Index.class));
+        assertEquals(database.getRelationalModel().getSequences().size(), stats.getCount(Sequence.class));
+        assertTrue(stats.getGeneratorNanos().containsKey("TableSnapshotGenerator"));
+        assertTrue(stats.getGeneratorNanos().containsKey("ColumnSnapshotGenerator"));
+
+        String line = stats.toLogLine();
+        assertThat(line, containsString("tables=" + tables + " columns=" + columns + " primaryKeys=" + primaryKeys));
+        assertThat(line, containsString("timeMs.ColumnSnapshotGenerator="));
+        assertFalse(line.contains("\n"));
+
+        database.close();
+        assertTrue(stats.isEmpty());
+    }
+}
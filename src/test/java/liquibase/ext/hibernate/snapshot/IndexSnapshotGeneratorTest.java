@@ -0,0 +1,68 @@
+package liquibase.ext.hibernate.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IndexSnapshotGeneratorTest {
+
+    private static final HibernateRelationalModel.Table ITEM = new HibernateRelationalModel.Table(null, null, "Item", null, true,
+            List.of(), null, List.of(),
+            List.of(
+                    index("IX_NAME", "name"),
+                    index("IX_NAME_ENDS", "name", "ends"),
+                    index("IX_NAME_AGAIN", "NAME")),
+            List.of());
+
+    @Test
+    public void snapshotObjectFindsIndexByColumns() throws Exception {
+        Database database = CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), "hibernate:ejb3:auction", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        DatabaseSnapshot snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database));
+        IndexSnapshotGenerator generator = new IndexSnapshotGenerator() {
+            @Override
+            protected HibernateRelationalModel.Table findHibernateTable(DatabaseObject example, DatabaseSnapshot snapshot) {
+                return ITEM;
+            }
+        };
+        Table table = new Table().setName("Item");
+        table.setSchema(new Schema());
+
+        Index single = (Index) generator.snapshotObject(example(table, "NAME"), snapshot);
+        Index composite = (Index) generator.snapshotObject(example(table, "name", "ENDS"), snapshot);
+        Index missing = example(table, "ends");
+
+        // the first index with matching columns wins
+        assertEquals("IX_NAME", single.getName());
+        assertEquals("IX_NAME_ENDS", composite.getName());
+        assertSame(missing, generator.snapshotObject(missing, snapshot));
+        assertEquals(2, table.getIndexes().size());
+    }
+
+    private static Index example(Table table, String... columnNames) {
+        Index index = new Index();
+        index.setRelation(table);
+        for (String columnName : columnNames) {
+            index.addColumn(new Column(columnName).setRelation(table));
+        }
+        return index;
+    }
+
+    private static HibernateRelationalModel.Index index(String name, String... columnNames) {
+        return new HibernateRelationalModel.Index(name, false, List.of(columnNames).stream().map(columnName -> new HibernateRelationalModel.IndexColumn(columnName, null)).toList());
+    }
+}
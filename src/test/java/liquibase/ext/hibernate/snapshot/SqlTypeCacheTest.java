@@ -0,0 +1,80 @@
+package liquibase.ext.hibernate.snapshot;
+
+import liquibase.structure.core.DataType;
+import org.junit.Test;
+
+import java.sql.Types;
+
+import static org.junit.Assert.*;
+
+public class SqlTypeCacheTest {
+
+    private final ColumnSnapshotGenerator columnSnapshotGenerator = new ColumnSnapshotGenerator();
+
+    @Test
+    public void repeatedTypesAreParsedOnce() throws Exception {
+        SqlTypeCache cache = new SqlTypeCache();
+
+        SqlTypeCache.ParsedSqlType first = cache.get("varchar(255)", Types.VARCHAR, "H2Dialect", columnSnapshotGenerator::toDataType);
+        SqlTypeCache.ParsedSqlType second = cache.get("varchar(255)", Types.VARCHAR, "H2Dialect", columnSnapshotGenerator::toDataType);
+        cache.get("varchar(255)", Types.NVARCHAR, "H2Dialect", columnSnapshotGenerator::toDataType);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+
+        DataType dataType = second.getDataType();
+        assertEquals("varchar", dataType.getTypeName());
+        assertEquals(255, dataType.getColumnSize().intValue());
+        assertNotSame(dataType, second.getDataType());
+    }
+
+    @Test
+    public void defaultValueIsSplitFromType() throws Exception {
+        SqlTypeCache cache = new SqlTypeCache();
+
+        SqlTypeCache.ParsedSqlType parsed = cache.get("integer default 42", Types.INTEGER, null, columnSnapshotGenerator::toDataType);
+
+        assertEquals("integer", parsed.getSqlType());
+        assertEquals("42", parsed.getDefaultValue());
+        assertEquals("integer", parsed.getDataType().getTypeName());
+    }
+
+    @Test
+    public void parsersOfDifferentClassesDoNotShareEntries() throws Exception {
+        SqlTypeCache cache = new SqlTypeCache();
+        ColumnSnapshotGenerator customGenerator = new ColumnSnapshotGenerator() {
+            @Override
+            protected DataType toDataType(String hibernateType, Integer sqlTypeCode) {
+                return new DataType("custom");
+            }
+        };
+
+        cache.get("varchar(255)", Types.VARCHAR, "H2Dialect", ColumnSnapshotGenerator.class, columnSnapshotGenerator::toDataType);
+        SqlTypeCache.ParsedSqlType custom = cache.get("varchar(255)", Types.VARCHAR, "H2Dialect", customGenerator.getClass(), customGenerator::toDataType);
+
+        assertEquals("custom", custom.getDataType().getTypeName());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() throws Exception {
+        SqlTypeCache cache = new SqlTypeCache(2);
+
+        cache.get("integer", Types.INTEGER, null, columnSnapshotGenerator::toDataType);
+        cache.get("bigint", Types.BIGINT, null, columnSnapshotGenerator::toDataType);
+        cache.get("integer", Types.INTEGER, null, columnSnapshotGenerator::toDataType);
+        cache.get("smallint", Types.SMALLINT, null, columnSnapshotGenerator::toDataType);
+        cache.get("integer", Types.INTEGER, null, columnSnapshotGenerator::toDataType);
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+}
@@ -0,0 +1,57 @@
+package liquibase.ext.hibernate.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.Table;
+import liquibase.structure.core.UniqueConstraint;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class UniqueConstraintSnapshotGeneratorTest {
+
+    @Test
+    public void snapshotsOfAnUnchangedModelAreIdentical() throws Exception {
+        String first = serialize(snapshot());
+        String second = serialize(snapshot());
+
+        assertTrue(first, first.contains("_IX"));
+        assertEquals(first, second);
+    }
+
+    private DatabaseSnapshot snapshot() throws Exception {
+        Database database = CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(this.getClass().getClassLoader()), "hibernate:ejb3:auction", null, null, null, null, null, false, false, null, null, null, null, null, null, null);
+        return SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database));
+    }
+
+    /**
+     * Renders every table with its unique constraints, their backing indexes and the table's indexes, in name order.
+     */
+    private String serialize(DatabaseSnapshot snapshot) {
+        StringBuilder out = new StringBuilder();
+        List<Table> tables = snapshot.get(Table.class).stream().sorted(Comparator.comparing(Table::getName)).toList();
+        for (Table table : tables) {
+            out.append(table.getName()).append('\n');
+            for (UniqueConstraint uniqueConstraint : table.getUniqueConstraints().stream().sorted(Comparator.comparing(UniqueConstraint::getName)).toList()) {
+                out.append("  unique ").append(uniqueConstraint.getName()).append(' ').append(uniqueConstraint.getColumnNames());
+                if (uniqueConstraint.getBackingIndex() != null) {
+                    out.append(" backed by ").append(uniqueConstraint.getBackingIndex().getName());
+                }
+                out.append('\n');
+            }
+            for (Index index : table.getIndexes().stream().sorted(Comparator.comparing(Index::getName)).toList()) {
+                out.append("  index ").append(index.getName()).append(' ').append(index.getColumnNames()).append('\n');
+            }
+        }
+        return out.toString();
+    }
+}
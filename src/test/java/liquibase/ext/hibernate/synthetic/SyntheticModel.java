@@ -0,0 +1,184 @@
+package liquibase.ext.hibernate.synthetic;
+
+import liquibase.Liquibase;
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.DiffToChangeLog;
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.DirectoryResourceAccessor;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Sequence;
+import liquibase.structure.core.Table;
+import liquibase.structure.core.UniqueConstraint;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A model written by {@link SyntheticModelGenerator}: the compiled entities and configuration files, and the hibernate URLs that read them.
+ * The classes are not on the class path, so code that opens one of the URLs must run through {@link #run(Scope.ScopedRunnerWithReturn)}.
+ */
+public class SyntheticModel implements AutoCloseable {
+
+    /**
+     * The {@link liquibase.ext.hibernate.database.HibernateDatabase} flavours that can read a synthetic model.
+     */
+    public enum Flavour {
+        CLASSIC, EJB3, SPRING_PACKAGE
+    }
+
+    private final Path classesDirectory;
+    private final String packageName;
+    private final List<String> classNames;
+    private final int tableCount;
+    private URLClassLoader classLoader;
+
+    SyntheticModel(Path classesDirectory, String packageName, List<String> classNames, int tableCount) {
+        this.classesDirectory = classesDirectory;
+        this.packageName = packageName;
+        this.classNames = List.copyOf(classNames);
+        this.tableCount = tableCount;
+    }
+
+    public Path getClassesDirectory() {
+        return classesDirectory;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public List<String> getClassNames() {
+        return classNames;
+    }
+
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * Compiles an additional class into this model's classes directory, for instance an entity in a new subpackage.
+     */
+    public void addClass(String className, String source) throws IOException {
+        Path sourceFile = classesDirectory.resolveSibling("src").resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source, StandardCharsets.UTF_8);
+        SyntheticModelGenerator.compile(List.of(sourceFile), classesDirectory);
+    }
+
+    /**
+     * Returns the URL that reads this model with the given flavour, with the given {@code name=value} properties appended.
+     */
+    public String getUrl(Flavour flavour, String... properties) {
+        StringBuilder url = new StringBuilder(switch (flavour) {
+            case CLASSIC -> "hibernate:classic:" + packageName.replace('.', '/') + "/hibernate.cfg.xml";
+            case EJB3 -> "hibernate:ejb3:" + packageName;
+            case SPRING_PACKAGE -> "hibernate:spring:" + packageName + "?dialect=org.hibernate.dialect.H2Dialect";
+        });
+        for (String property : properties) {
+            url.append(url.indexOf("?") < 0 ? '?' : '&').append(property);
+        }
+        return url.toString();
+    }
+
+    /**
+     * Opens the given URL, typically one returned by {@link #getUrl(Flavour, String...)}, through this model's class loader.
+     */
+    public HibernateDatabase open(String url) throws Exception {
+        return run(() -> (HibernateDatabase) CommandLineUtils.createDatabaseObject(new ClassLoaderResourceAccessor(getClassLoader()), url,
+                null, null, null, null, null, false, false, null, null, null, null, null, null, null));
+    }
+
+    /**
+     * Creates this model's tables in the target database by running the changelog generated from a diff against the given hibernate database.
+     */
+    public void createSchema(HibernateDatabase reference, Database target) throws Exception {
+        run(() -> {
+            DiffResult diffResult = DiffGeneratorFactory.getInstance().compare(reference, target, createCompareControl());
+            DiffOutputControl diffOutputControl = new DiffOutputControl();
+            diffOutputControl.setIncludeCatalog(false);
+            diffOutputControl.setIncludeSchema(false);
+
+            Path changeLog = Files.createTempFile(classesDirectory.getParent(), "changelog", ".xml");
+            try {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(changeLog), true, StandardCharsets.UTF_8)) {
+                    new DiffToChangeLog(diffResult, diffOutputControl).print(out);
+                }
+                new Liquibase(changeLog.getFileName().toString(), new DirectoryResourceAccessor(changeLog.getParent()), target).update((String) null);
+            } finally {
+                Files.deleteIfExists(changeLog);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Returns the comparison used between a synthetic model and a database created from it. Indexes are left out as databases
+     * create ones for foreign keys that hibernate does not know about, and fields that differ only in representation are suppressed.
+     */
+    public static CompareControl createCompareControl() {
+        Set<Class<? extends DatabaseObject>> types = Set.of(Table.class, Column.class, PrimaryKey.class, ForeignKey.class, UniqueConstraint.class, Sequence.class);
+        CompareControl compareControl = new CompareControl(types);
+        compareControl.addSuppressedField(Table.class, "remarks");
+        compareControl.addSuppressedField(Column.class, "remarks");
+        compareControl.addSuppressedField(Column.class, "certainDataType");
+        compareControl.addSuppressedField(Column.class, "autoIncrementInformation");
+        compareControl.addSuppressedField(ForeignKey.class, "deleteRule");
+        compareControl.addSuppressedField(ForeignKey.class, "updateRule");
+        return compareControl;
+    }
+
+    /**
+     * Returns the class loader the entities and configuration files are read from, creating it on first use.
+     */
+    public synchronized ClassLoader getClassLoader() {
+        if (classLoader == null) {
+            try {
+                classLoader = new URLClassLoader(new URL[]{classesDirectory.toUri().toURL()}, SyntheticModel.class.getClassLoader());
+            } catch (MalformedURLException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return classLoader;
+    }
+
+    /**
+     * Runs the given code with {@link #getClassLoader()} as both the liquibase scope and the thread context class loader.
+     */
+    public <T> T run(Scope.ScopedRunnerWithReturn<T> runner) throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader originalClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(getClassLoader());
+        try {
+            return Scope.child(Scope.Attr.classLoader.name(), getClassLoader(), runner);
+        } finally {
+            thread.setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (classLoader != null) {
+            classLoader.close();
+            classLoader = null;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package liquibase.ext.hibernate.synthetic;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Generates a synthetic annotated entity model of configurable size, for benchmarks and scalability tests.
+ * <p>
+ * Every entity gets a generated id, {@link #columns(int)} basic columns of mixed types, up to {@link #foreignKeys(int)} many-to-one references
+ * to earlier entities, {@link #indexes(int)} single column indexes and {@link #subclasses(int)} joined subclasses with a column each.
+ * The sources are compiled with the system Java compiler into a directory, together with a {@code hibernate.cfg.xml} and a
+ * {@code META-INF/persistence.xml} listing the entities, so the classic, ejb3 and spring package flavours all read the same model.
+ * A directory that already holds a model generated with the same settings is reused.
+ */
+public class SyntheticModelGenerator {
+
+    private static final String[][] COLUMN_TYPES = {
+            {"String", "@Column(name = \"%s\", length = 100)"},
+            {"Integer", "@Column(name = \"%s\")"},
+            {"Long", "@Column(name = \"%s\", nullable = false)"},
+            {"java.math.BigDecimal", "@Column(name = \"%s\", precision = 19, scale = 2)"},
+            {"java.time.LocalDate", "@Column(name = \"%s\")"},
+            {"Boolean", "@Column(name = \"%s\")"},
+    };
+
+    private int entities = 100;
+    private int columns = 10;
+    private int foreignKeys = 2;
+    private int indexes = 1;
+    private int subclasses = 0;
+    private String dialect = "org.hibernate.dialect.H2Dialect";
+
+    public SyntheticModelGenerator entities(int entities) {
+        this.entities = entities;
+        return this;
+    }
+
+    public SyntheticModelGenerator columns(int columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    public SyntheticModelGenerator foreignKeys(int foreignKeys) {
+        this.foreignKeys = foreignKeys;
+        return this;
+    }
+
+    public SyntheticModelGenerator indexes(int indexes) {
+        this.indexes = indexes;
+        return this;
+    }
+
+    public SyntheticModelGenerator subclasses(int subclasses) {
+        this.subclasses = subclasses;
+        return this;
+    }
+
+    public SyntheticModelGenerator dialect(String dialect) {
+        this.dialect = dialect;
+        return this;
+    }
+
+    /**
+     * Returns the package the entities are generated in. It is derived from the settings, so models of different shapes can share a class loader.
+     */
+    public String getPackageName() {
+        return String.format(Locale.ROOT, "com.example.synthetic.e%dc%df%di%ds%d", entities, columns, foreignKeys, indexes, subclasses);
+    }
+
+    /**
+     * Returns the number of tables the generated model maps: one per entity and one per joined subclass.
+     */
+    public int getTableCount() {
+        return entities * (1 + subclasses);
+    }
+
+    /**
+     * Generates the model into the given directory, or reuses the one already there.
+     */
+    public SyntheticModel generate(Path directory) throws IOException {
+        Path sourceDirectory = directory.resolve("src");
+        Path classesDirectory = directory.resolve("classes");
+        String packagePath = getPackageName().replace('.', '/');
+        Path marker = classesDirectory.resolve(packagePath).resolve("synthetic.properties");
+
+        List<String> classNames = new ArrayList<>();
+        for (int entity = 0; entity < entities; entity++) {
+            classNames.add(getPackageName() + "." + entityName(entity));
+            for (int subclass = 1; subclass <= subclasses; subclass++) {
+                classNames.add(getPackageName() + "." + subclassName(entity, subclass));
+            }
+        }
+
+        if (!Files.isRegularFile(marker) || !Files.readString(marker).equals(describe())) {
+            List<Path> sources = writeSources(sourceDirectory.resolve(packagePath));
+            compile(sources, classesDirectory);
+            writeConfiguration(classesDirectory, packagePath, classNames);
+            Files.writeString(marker, describe());
+        }
+
+        return new SyntheticModel(classesDirectory, getPackageName(), classNames, getTableCount());
+    }
+
+    private String describe() {
+        return "entities=" + entities + "\ncolumns=" + columns + "\nforeignKeys=" + foreignKeys + "\nindexes=" + indexes
+                + "\nsubclasses=" + subclasses + "\ndialect=" + dialect + "\n";
+    }
+
+    private List<Path> writeSources(Path packageDirectory) throws IOException {
+        Files.createDirectories(packageDirectory);
+        List<Path> sources = new ArrayList<>();
+        for (int entity = 0; entity < entities; entity++) {
+            Path source = packageDirectory.resolve(entityName(entity) + ".java");
+            Files.writeString(source, entitySource(entity), StandardCharsets.UTF_8);
+            sources.add(source);
+            for (int subclass = 1; subclass <= subclasses; subclass++) {
+                source = packageDirectory.resolve(subclassName(entity, subclass) + ".java");
+                Files.writeString(source, subclassSource(entity, subclass), StandardCharsets.UTF_8);
+                sources.add(source);
+            }
+        }
+        return sources;
+    }
+
+    private String entitySource(int entity) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(getPackageName()).append(";\n\n");
+        source.append("import jakarta.persistence.*;\n\n");
+        source.append("@Entity\n");
+        source.append("@Table(name = \"").append(tableName(entity)).append("\"");
+        if (indexes > 0 && columns > 0) {
+            source.append(", indexes = {");
+            for (int index = 0; index < indexes; index++) {
+                source.append(index == 0 ? "" : ", ")
+                        .append("@Index(name = \"").append(tableName(entity)).append("_IX").append(index)
+                        .append("\", columnList = \"").append(columnName(index % columns)).append("\")");
+            }
+            source.append("}");
+        }
+        source.append(")\n");
+        if (subclasses > 0) {
+            source.append("@Inheritance(strategy = InheritanceType.JOINED)\n");
+        }
+        source.append("public class ").append(entityName(entity)).append(" {\n\n");
+        source.append("    @Id\n    @GeneratedValue(strategy = GenerationType.IDENTITY)\n    private Long id;\n");
+        for (int column = 0; column < columns; column++) {
+            String[] type = COLUMN_TYPES[column % COLUMN_TYPES.length];
+            source.append("\n    ").append(String.format(Locale.ROOT, type[1], columnName(column)))
+                    .append("\n    private ").append(type[0]).append(" ").append(columnName(column)).append(";\n");
+        }
+        for (int foreignKey = 0; foreignKey < Math.min(foreignKeys, entity); foreignKey++) {
+            int target = entity - 1 - foreignKey;
+            source.append("\n    @ManyToOne\n    @JoinColumn(name = \"ref_").append(foreignKey).append("_id\")\n")
+                    .append("    private ").append(entityName(target)).append(" ref").append(foreignKey).append(";\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private String subclassSource(int entity, int subclass) {
+        String superclass = subclass == 1 ? entityName(entity) : subclassName(entity, subclass - 1);
+        return "package " + getPackageName() + ";\n\n"
+                + "import jakarta.persistence.*;\n\n"
+                + "@Entity\n"
+                + "@Table(name = \"" + tableName(entity) + "_S" + subclass + "\")\n"
+                + "public class " + subclassName(entity, subclass) + " extends " + superclass + " {\n\n"
+                + "    @Column(name = \"sub_" + subclass + "\", length = 50)\n"
+                + "    private String sub" + subclass + ";\n"
+                + "}\n";
+    }
+
+    static void compile(List<Path> sources, Path classesDirectory) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Generating a synthetic model needs a JDK, not a JRE");
+        }
+        Files.createDirectories(classesDirectory);
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+            List<String> options = List.of("-d", classesDirectory.toString(), "-classpath", System.getProperty("java.class.path"),
+                    "-proc:none", "-nowarn");
+            Boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromPaths(sources)).call();
+            if (!Boolean.TRUE.equals(success)) {
+                StringBuilder message = new StringBuilder("Cannot compile synthetic model:");
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    message.append('\n').append(diagnostic);
+                }
+                throw new IllegalStateException(message.toString());
+            }
+        }
+    }
+
+    private void writeConfiguration(Path classesDirectory, String packagePath, List<String> classNames) throws IOException {
+        StringBuilder cfg = new StringBuilder();
+        cfg.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        cfg.append("<!DOCTYPE hibernate-configuration PUBLIC \"-//Hibernate/Hibernate Configuration DTD 3.0//EN\" \"http://www.hibernate.org/dtd/hibernate-configuration-3.0.dtd\">\n");
+        cfg.append("<hibernate-configuration>\n    <session-factory>\n");
+        cfg.append("        <property name=\"hibernate.dialect\">").append(dialect).append("</property>\n");
+        for (String className : classNames) {
+            cfg.append("        <mapping class=\"").append(className).append("\"/>\n");
+        }
+        cfg.append("    </session-factory>\n</hibernate-configuration>\n");
+        Files.writeString(classesDirectory.resolve(packagePath).resolve("hibernate.cfg.xml"), cfg, StandardCharsets.UTF_8);
+
+        StringBuilder persistence = new StringBuilder();
+        persistence.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        persistence.append("<persistence xmlns=\"https://jakarta.ee/xml/ns/persistence\" version=\"3.0\">\n");
+        persistence.append("    <persistence-unit name=\"").append(getPackageName()).append("\" transaction-type=\"RESOURCE_LOCAL\">\n");
+        for (String className : classNames) {
+            persistence.append("        <class>").append(className).append("</class>\n");
+        }
+        persistence.append("        <exclude-unlisted-classes>true</exclude-unlisted-classes>\n");
+        persistence.append("        <properties>\n");
+        persistence.append("            <property name=\"hibernate.dialect\" value=\"").append(dialect).append("\"/>\n");
+        persistence.append("            <property name=\"hibernate.archive.autodetection\" value=\"false\"/>\n");
+        persistence.append("        </properties>\n    </persistence-unit>\n</persistence>\n");
+        Files.createDirectories(classesDirectory.resolve("META-INF"));
+        Files.writeString(classesDirectory.resolve("META-INF/persistence.xml"), persistence, StandardCharsets.UTF_8);
+    }
+
+    private static String entityName(int entity) {
+        return String.format(Locale.ROOT, "Entity%05d", entity);
+    }
+
+    private static String subclassName(int entity, int subclass) {
+        return entityName(entity) + "S" + subclass;
+    }
+
+    private static String tableName(int entity) {
+        return String.format(Locale.ROOT, "SYN_%05d", entity);
+    }
+
+    private static String columnName(int column) {
+        return "col_" + column;
+    }
+}
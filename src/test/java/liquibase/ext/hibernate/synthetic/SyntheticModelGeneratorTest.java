@@ -0,0 +1,64 @@
+package liquibase.ext.hibernate.synthetic;
+
+import liquibase.ext.hibernate.database.HibernateDatabase;
+import liquibase.ext.hibernate.model.HibernateRelationalModel;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class SyntheticModelGeneratorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void everyFlavourReadsTheGeneratedModel() throws Exception {
+        SyntheticModelGenerator generator = new SyntheticModelGenerator().entities(5).columns(7).foreignKeys(2).indexes(2).subclasses(1);
+
+        try (SyntheticModel model = generator.generate(temporaryFolder.getRoot().toPath())) {
+            assertEquals(10, model.getTableCount());
+            assertEquals(10, model.getClassNames().size());
+
+            HibernateRelationalModel expected = null;
+            for (SyntheticModel.Flavour flavour : SyntheticModel.Flavour.values()) {
+                HibernateDatabase database = model.open(model.getUrl(flavour));
+                try {
+                    HibernateRelationalModel relationalModel = database.getRelationalModel();
+                    assertEquals(flavour.name(), 10, relationalModel.getTables().size());
+
+                    HibernateRelationalModel.Table last = relationalModel.findTable(null, null, "SYN_00004");
+                    assertNotNull(flavour.name(), last);
+                    assertEquals(10, last.columns().size());
+                    assertEquals(2, last.foreignKeys().size());
+                    assertEquals(2, last.indexes().size());
+                    assertEquals(1, relationalModel.findTable(null, null, "SYN_00004_S1").foreignKeys().size());
+
+                    if (expected == null) {
+                        expected = relationalModel;
+                    } else {
+                        assertEquals(flavour.name(), new HashSet<>(expected.getTables()), new HashSet<>(relationalModel.getTables()));
+                    }
+                } finally {
+                    database.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void existingModelIsReused() throws Exception {
+        SyntheticModelGenerator generator = new SyntheticModelGenerator().entities(3).columns(2);
+
+        try (SyntheticModel first = generator.generate(temporaryFolder.getRoot().toPath())) {
+            long modified = first.getClassesDirectory().resolve(first.getPackageName().replace('.', '/') + "/Entity00000.class").toFile().lastModified();
+            try (SyntheticModel second = generator.generate(temporaryFolder.getRoot().toPath())) {
+                assertEquals(first.getClassNames(), second.getClassNames());
+                assertEquals(modified, second.getClassesDirectory().resolve(second.getPackageName().replace('.', '/') + "/Entity00000.class").toFile().lastModified());
+            }
+        }
+    }
+}